@@ -0,0 +1,64 @@
+import java.util.function.LongSupplier;
+
+// Небольшая замена JMH для бенчмарков без сборочной системы: прогревочные и измерительные итерации
+// фиксированной длительности; операция вызывается подряд, пока итерация не закончится (минимум один раз).
+// Печатает среднее время операции и стандартное отклонение между итерациями.
+// Результат операции накапливается в sink, чтобы JIT не выбросил работу.
+public class BenchHarness {
+    static volatile long sink;
+
+    private final int warmupIterations;
+    private final int iterations;
+    private final long iterationNanos;
+
+    public BenchHarness(int warmupIterations, int iterations, long iterationMillis) {
+        this.warmupIterations = warmupIterations;
+        this.iterations = iterations;
+        this.iterationNanos = iterationMillis * 1_000_000L;
+    }
+
+    // Среднее время одной операции в наносекундах.
+    public double measure(String name, LongSupplier operation) {
+        for (int i = 0; i < warmupIterations; i++) {
+            iteration(operation);
+        }
+        double[] results = new double[iterations];
+        double mean = 0;
+        for (int i = 0; i < iterations; i++) {
+            results[i] = iteration(operation);
+            mean += results[i];
+        }
+        mean /= iterations;
+        double variance = 0;
+        for (double result : results) {
+            variance += (result - mean) * (result - mean);
+        }
+        double deviation = iterations > 1 ? Math.sqrt(variance / (iterations - 1)) : 0;
+        System.out.printf("  %-44s %12s ± %s%n", name, format(mean), format(deviation));
+        return mean;
+    }
+
+    private double iteration(LongSupplier operation) {
+        long accumulator = 0;
+        long operations = 0;
+        long started = System.nanoTime();
+        long elapsed;
+        do {
+            accumulator += operation.getAsLong();
+            operations++;
+            elapsed = System.nanoTime() - started;
+        } while (elapsed < iterationNanos);
+        sink += accumulator;
+        return elapsed / (double) operations;
+    }
+
+    static String format(double nanos) {
+        if (nanos >= 1_000_000) {
+            return String.format("%.2f мс", nanos / 1_000_000);
+        }
+        if (nanos >= 1_000) {
+            return String.format("%.2f мкс", nanos / 1_000);
+        }
+        return String.format("%.1f нс", nanos);
+    }
+}
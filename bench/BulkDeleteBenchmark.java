@@ -0,0 +1,36 @@
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+// Время массового удаления задач со временем и просмотренных в истории.
+// При линейном удалении время на одну задачу почти не растёт вместе с размером доски.
+// Запуск: java BulkDeleteBenchmark [наибольшее число задач]
+public class BulkDeleteBenchmark {
+    public static void main(String[] args) {
+        int maxTasks = args.length > 0 ? Integer.parseInt(args[0]) : 80_000;
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+        for (int size = 10_000; size <= maxTasks; size *= 2) {
+            InMemoryTaskManager manager = new InMemoryTaskManager();
+            Epic epic = manager.createEpic(new Epic("Epic", "Описание"));
+            for (int i = 0; i < size; i++) {
+                LocalDateTime slot = start.plusMinutes(20L * i);
+                Task task = manager.createTask(new Task("Task " + i, "Описание", Status.NEW,
+                        Duration.ofMinutes(10), slot));
+                manager.getTaskById(task.getId());
+                Subtask subtask = manager.createSubtask(new Subtask("Sub " + i, "Описание", Status.NEW,
+                        epic.getId(), Duration.ofMinutes(5), slot.plusMinutes(12)));
+                manager.getSubtaskById(subtask.getId());
+            }
+
+            long began = System.nanoTime();
+            manager.deleteAllTasks();
+            long tasksNanos = System.nanoTime() - began;
+            began = System.nanoTime();
+            manager.deleteAllEpics();
+            long epicsNanos = System.nanoTime() - began;
+
+            System.out.printf("задач %d: deleteAllTasks %.1f мс (%.0f нс/задачу), deleteAllEpics %.1f мс (%.0f нс/подзадачу)%n",
+                    size, tasksNanos / 1e6, tasksNanos / (double) size, epicsNanos / 1e6, epicsNanos / (double) size);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+// Нагрузка на HttpTaskServer: клиенты с keep-alive соединениями по кругу читают списки,
+// отдельные задачи и историю. Выводит пропускную способность и задержки p50/p99/max.
+// Запуск: java HttpLoadBenchmark [клиентов] [задач на доске] [секунд на замер]
+public class HttpLoadBenchmark {
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 256;
+        int boardSize = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        TaskManager manager = new ConcurrentTaskManager();
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < boardSize; i++) {
+            ids.add(manager.createTask(new Task("Задача " + i, "Описание", Status.NEW,
+                    Duration.ofMinutes(30), start.plusHours(i))).getId());
+        }
+
+        // Как в HttpTaskServer.main: без TCP_NODELAY keep-alive ответы ждут отложенного ACK.
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        HttpTaskServer server = new HttpTaskServer(manager, 0);
+        server.start();
+        String base = "http://localhost:" + server.getPort();
+        List<URI> targets = new ArrayList<>();
+        targets.add(URI.create(base + "/tasks"));
+        targets.add(URI.create(base + "/prioritized"));
+        targets.add(URI.create(base + "/history?offset=0&limit=20"));
+        for (int i = 0; i < 5; i++) {
+            targets.add(URI.create(base + "/tasks/" + ids.get(i * ids.size() / 5)));
+        }
+
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        try {
+            run(client, targets, clients, 1);
+            long[] latencies = run(client, targets, clients, seconds);
+            Arrays.sort(latencies);
+            System.out.printf("клиентов %d, задач %d: %.0f запросов/с, p50 %.2f мс, p99 %.2f мс, max %.2f мс%n",
+                    clients, boardSize, latencies.length / (double) seconds,
+                    percentile(latencies, 0.50), percentile(latencies, 0.99),
+                    latencies[latencies.length - 1] / 1e6);
+        } finally {
+            server.stop();
+        }
+    }
+
+    // Каждый клиент в своём виртуальном потоке ждёт ответа и сразу шлёт следующий запрос.
+    private static long[] run(HttpClient client, List<URI> targets, int clients, int seconds) throws Exception {
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        LongAdder errors = new LongAdder();
+        List<Future<long[]>> results = new ArrayList<>();
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        for (int c = 0; c < clients; c++) {
+            int offset = c;
+            results.add(executor.submit(() -> {
+                long[] latencies = new long[1024];
+                int count = 0;
+                for (int i = offset; System.nanoTime() < deadline; i++) {
+                    HttpRequest request = HttpRequest.newBuilder(targets.get(i % targets.size())).GET().build();
+                    long begin = System.nanoTime();
+                    HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                    long elapsed = System.nanoTime() - begin;
+                    if (response.statusCode() != 200) {
+                        errors.increment();
+                    }
+                    if (count == latencies.length) {
+                        latencies = Arrays.copyOf(latencies, count * 2);
+                    }
+                    latencies[count++] = elapsed;
+                }
+                return Arrays.copyOf(latencies, count);
+            }));
+        }
+        long[] all = new long[0];
+        for (Future<long[]> result : results) {
+            long[] latencies = result.get();
+            int from = all.length;
+            all = Arrays.copyOf(all, from + latencies.length);
+            System.arraycopy(latencies, 0, all, from, latencies.length);
+        }
+        executor.shutdown();
+        if (errors.sum() > 0) {
+            System.out.println("ошибочных ответов: " + errors.sum());
+        }
+        return all;
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+}
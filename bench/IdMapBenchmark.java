@@ -0,0 +1,84 @@
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+// Сравнение HashMap<Integer, Task> и IntHashMap<Task> на доске в миллион задач:
+// пропускная способность поиска по случайным id и накладные расходы хранилища на одну задачу.
+// Сами задачи общие для обеих карт, поэтому в память попадает только стоимость индекса.
+// IntHashMap меряется дважды: через boxed-API Map и через get(int)/put(int, V), которым
+// пользуются менеджеры.
+// Запуск: java IdMapBenchmark [количество задач] [раундов]
+public class IdMapBenchmark {
+    private static final int LOOKUPS = 10_000_000;
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        Task[] board = new Task[size];
+        for (int i = 0; i < size; i++) {
+            board[i] = new Task("Task " + i, "Описание", Status.NEW);
+            board[i].setId(i + 1);
+        }
+        int[] probes = new int[LOOKUPS];
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < LOOKUPS; i++) {
+            probes[i] = 1 + random.nextInt(size);
+        }
+
+        for (int round = 1; round <= rounds; round++) {
+            measure("HashMap", round, board, probes, HashMap::new);
+            measure("IntHashMap", round, board, probes, IntHashMap::new);
+            measurePrimitive(round, board, probes);
+        }
+    }
+
+    private static void measure(String label, int round, Task[] board, int[] probes,
+                                Supplier<Map<Integer, Task>> factory) {
+        long before = usedHeap();
+        Map<Integer, Task> map = factory.get();
+        for (Task task : board) {
+            map.put(task.getId(), task);
+        }
+        long bytesPerTask = (usedHeap() - before) / board.length;
+
+        long started = System.nanoTime();
+        long checksum = 0;
+        for (int id : probes) {
+            checksum += map.get(id).getId();
+        }
+        long elapsed = System.nanoTime() - started;
+        report(label, round, probes.length, elapsed, bytesPerTask, checksum);
+    }
+
+    private static void measurePrimitive(int round, Task[] board, int[] probes) {
+        long before = usedHeap();
+        IntHashMap<Task> map = new IntHashMap<>();
+        for (Task task : board) {
+            map.put(task.getId(), task);
+        }
+        long bytesPerTask = (usedHeap() - before) / board.length;
+
+        long started = System.nanoTime();
+        long checksum = 0;
+        for (int id : probes) {
+            checksum += map.get(id).getId();
+        }
+        long elapsed = System.nanoTime() - started;
+        report("IntHashMap(int)", round, probes.length, elapsed, bytesPerTask, checksum);
+    }
+
+    private static void report(String label, int round, int lookups, long elapsed, long bytesPerTask,
+                               long checksum) {
+        System.out.printf("%s раунд %d: %.1f млн поисков/с, %d байт на задачу (checksum %d)%n",
+                label, round, lookups * 1e3 / elapsed, bytesPerTask, checksum);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,99 @@
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+// Стоимость TaskJsonCodec на объект: время и выделенная память на кодирование и разбор.
+// Доска - задачи, эпики и подзадачи вперемешку; память считается по счётчику выделений потока.
+// Запуск: java JsonCodecBenchmark [объектов] [повторов]
+public class JsonCodecBenchmark {
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    // Результат замера, чтобы JIT не выбросил работу.
+    static volatile long sink;
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+
+        List<Task> board = board(count);
+        TaskJsonCodec codec = new TaskJsonCodec();
+        byte[][] encoded = new byte[board.size()][];
+        TaskType[] types = new TaskType[board.size()];
+        for (int i = 0; i < board.size(); i++) {
+            encoded[i] = codec.reset().write(board.get(i)).toByteArray();
+            types[i] = board.get(i).getType();
+        }
+        long totalBytes = 0;
+        for (byte[] json : encoded) {
+            totalBytes += json.length;
+        }
+        System.out.printf("объектов %d, в среднем %d байт JSON%n", board.size(), totalBytes / board.size());
+
+        for (int warmup = 0; warmup < 3; warmup++) {
+            encode(codec, board, rounds);
+            decode(codec, encoded, types, rounds);
+        }
+        report("кодирование", board.size() * (long) rounds, () -> encode(codec, board, rounds));
+        report("разбор", board.size() * (long) rounds, () -> decode(codec, encoded, types, rounds));
+    }
+
+    private static List<Task> board(int count) {
+        List<Task> board = new ArrayList<>();
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 9, 0);
+        Status[] statuses = Status.values();
+        int id = 1;
+        while (board.size() < count) {
+            Epic epic = new Epic("Эпик " + id, "Описание эпика с \"кавычками\"");
+            epic.setId(id++);
+            board.add(epic);
+            for (int i = 0; i < 4 && board.size() < count; i++) {
+                Subtask subtask = new Subtask("Подзадача " + id, "Описание подзадачи", statuses[id % 3],
+                        epic.getId(), Duration.ofMinutes(45), start.plusMinutes(id * 60L));
+                subtask.setId(id++);
+                epic.addSubtaskId(subtask.getId());
+                board.add(subtask);
+            }
+            if (board.size() < count) {
+                Task task = new Task("Task " + id, "Plain ASCII description", Status.NEW,
+                        Duration.ofMinutes(30), start.plusMinutes(id * 60L));
+                task.setId(id++);
+                board.add(task);
+            }
+        }
+        return board;
+    }
+
+    private static long encode(TaskJsonCodec codec, List<Task> board, int rounds) {
+        long size = 0;
+        for (int r = 0; r < rounds; r++) {
+            for (Task task : board) {
+                size += codec.reset().write(task).size();
+            }
+        }
+        return size;
+    }
+
+    private static long decode(TaskJsonCodec codec, byte[][] encoded, TaskType[] types, int rounds) {
+        long ids = 0;
+        for (int r = 0; r < rounds; r++) {
+            for (int i = 0; i < encoded.length; i++) {
+                ids += codec.decode(encoded[i], types[i]).getId();
+            }
+        }
+        return ids;
+    }
+
+    private static void report(String name, long operations, LongSupplier body) {
+        long threadId = Thread.currentThread().threadId();
+        long allocatedBefore = THREADS.getThreadAllocatedBytes(threadId);
+        long begin = System.nanoTime();
+        sink = body.getAsLong();
+        long elapsed = System.nanoTime() - begin;
+        long allocated = THREADS.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        System.out.printf("%s: %.0f нс/объект, %.0f байт/объект%n",
+                name, elapsed / (double) operations, allocated / (double) operations);
+    }
+}
@@ -0,0 +1,81 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+// Замер времени старта, пикового heap и сохранения для CSV- и бинарного снимков.
+// Запуск: java LoadBenchmark [количество задач]
+public class LoadBenchmark {
+    public static void main(String[] args) throws IOException {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        File file = File.createTempFile("load-benchmark", ".csv");
+        file.deleteOnExit();
+        writeBoard(file, size);
+        File binary = File.createTempFile("load-benchmark", ".bin");
+        binary.deleteOnExit();
+        FileBackedTaskManager.loadFromFile(file).exportSnapshot(binary, SnapshotFormat.BINARY);
+
+        for (int run = 1; run <= 5; run++) {
+            measure("csv", run, file, FileBackedTaskManager::loadFromFile);
+            measure("binary", run, binary, FileBackedTaskManager::loadFromFile);
+            measure("mapped", run, binary, FileBackedTaskManager::loadMapped);
+        }
+    }
+
+    private static void measure(String label, int run, File file, Function<File, FileBackedTaskManager> loader) {
+        System.gc();
+        resetPeakHeap();
+        long started = System.nanoTime();
+        FileBackedTaskManager manager = loader.apply(file);
+        long loaded = System.nanoTime() - started;
+        long peak = peakHeap();
+
+        started = System.nanoTime();
+        manager.compact();
+        long saved = System.nanoTime() - started;
+
+        System.out.printf("%s run %d: %d задач, загрузка %d мс, сохранение %d мс, пиковый heap %d МБ, файл %d КБ%n",
+                label, run, manager.getAllTasks().size() + manager.getAllSubtasks().size(),
+                loaded / 1_000_000, saved / 1_000_000, peak / (1024 * 1024), file.length() / 1024);
+    }
+
+    private static void writeBoard(File file, int size) throws IOException {
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 0, 0);
+        try (PrintWriter writer = new PrintWriter(file, "UTF-8")) {
+            writer.println("id,type,name,status,description,epic,duration,startTime,endTime");
+            int id = 1;
+            while (id <= size) {
+                int epicId = id++;
+                writer.println(epicId + ",EPIC,Epic " + epicId + ",NEW,Описание,,0,,");
+                for (int i = 0; i < 10 && id <= size; i++, id++) {
+                    // Половина подзадач без времени: их ленивая загрузка не декодирует.
+                    String startTime = i % 2 == 0 ? start.plusMinutes(30L * id).toString() : "";
+                    writer.println(id + ",SUBTASK,Sub " + id + ",IN_PROGRESS,Описание\\, подробное," + epicId
+                            + ",15," + startTime);
+                }
+            }
+        }
+    }
+
+    private static void resetPeakHeap() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    private static long peakHeap() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+}
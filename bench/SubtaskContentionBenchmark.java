@@ -0,0 +1,57 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+// Пропускная способность обновлений подзадач, когда каждый поток работает со своим эпиком.
+// Запуск: java SubtaskContentionBenchmark [подзадач на эпик] [секунд на замер]
+public class SubtaskContentionBenchmark {
+    public static void main(String[] args) throws InterruptedException {
+        int subtasksPerEpic = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        for (int threads = 1; threads <= cores * 2; threads *= 2) {
+            double throughput = measure(threads, subtasksPerEpic, seconds);
+            System.out.printf("потоков %d: %.0f обновлений/с%n", threads, throughput);
+        }
+    }
+
+    private static double measure(int threads, int subtasksPerEpic, int seconds) throws InterruptedException {
+        ConcurrentTaskManager manager = new ConcurrentTaskManager();
+        List<List<Subtask>> boards = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Epic epic = manager.createEpic(new Epic("Epic " + t, "Описание"));
+            List<Subtask> epicSubtasks = new ArrayList<>();
+            for (int i = 0; i < subtasksPerEpic; i++) {
+                epicSubtasks.add(manager.createSubtask(new Subtask("Sub", "Описание", Status.NEW, epic.getId())));
+            }
+            boards.add(epicSubtasks);
+        }
+
+        LongAdder operations = new LongAdder();
+        CountDownLatch done = new CountDownLatch(threads);
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        Status[] statuses = Status.values();
+
+        for (int t = 0; t < threads; t++) {
+            List<Subtask> epicSubtasks = boards.get(t);
+            Thread worker = new Thread(() -> {
+                int i = 0;
+                while (System.nanoTime() < deadline) {
+                    Subtask current = epicSubtasks.get(i % epicSubtasks.size());
+                    Subtask updated = new Subtask(current.getName(), current.getDescription(),
+                            statuses[i % statuses.length], current.getEpicId());
+                    updated.setId(current.getId());
+                    manager.updateSubtask(updated);
+                    operations.increment();
+                    i++;
+                }
+                done.countDown();
+            });
+            worker.start();
+        }
+        done.await();
+        return operations.sum() / (double) seconds;
+    }
+}
@@ -0,0 +1,224 @@
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+// Горячие пути TaskManager на досках разного размера для каждой реализации:
+// создание задачи с проверкой пересечений (успешное и отклонённое), чтение расписания
+// (из снимка, после изменения, окном в сутки), обновление подзадачи эпика, getById с записью в историю;
+// отдельно InMemoryHistoryManager.add/getHistory и сохранение/загрузка FileBackedTaskManager.
+// Доска: пятая часть - задачи со временем, остальное - эпики с заданным числом подзадач со временем.
+// FileBackedTaskManager работает в режиме журнала, доска строится пакетами (applyBatch).
+// Запуск: java -Xmx4g TaskManagerBenchmark [размеры через запятую] [подзадач на эпик через запятую] [мс на итерацию]
+public class TaskManagerBenchmark {
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private static final int BATCH = 10_000;
+
+    private final int size;
+    private final int fanOut;
+    private final BenchHarness harness;
+
+    private TaskManagerBenchmark(int size, int fanOut, BenchHarness harness) {
+        this.size = size;
+        this.fanOut = fanOut;
+        this.harness = harness;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int[] sizes = parse(args.length > 0 ? args[0] : "1000,10000,100000,1000000");
+        int[] fanOuts = parse(args.length > 1 ? args[1] : "10,1000");
+        long iterationMillis = args.length > 2 ? Long.parseLong(args[2]) : 500;
+        BenchHarness harness = new BenchHarness(2, 3, iterationMillis);
+
+        for (int size : sizes) {
+            System.out.printf("%nInMemoryHistoryManager, %d задач%n", size);
+            benchmarkHistory(harness, size);
+            for (int fanOut : fanOuts) {
+                TaskManagerBenchmark benchmark = new TaskManagerBenchmark(size, fanOut, harness);
+                benchmark.run("InMemoryTaskManager", InMemoryTaskManager::new);
+                benchmark.run("ConcurrentTaskManager", ConcurrentTaskManager::new);
+                File file = File.createTempFile("manager-benchmark", ".bin");
+                try {
+                    benchmark.run("FileBackedTaskManager (журнал)", () -> new FileBackedTaskManager(file,
+                            SnapshotFormat.BINARY, new TaskJournal(FileBackedTaskManager.journalFileFor(file)),
+                            Integer.MAX_VALUE));
+                    benchmark.runPersistence(file);
+                } finally {
+                    file.delete();
+                    FileBackedTaskManager.journalFileFor(file).delete();
+                    FileBackedTaskManager.historyFileFor(file).delete();
+                }
+            }
+        }
+    }
+
+    private void run(String name, Supplier<TaskManager> factory) {
+        System.out.printf("%n%s, %d задач, %d подзадач на эпик%n", name, size, fanOut);
+        TaskManager manager = factory.get();
+        Board board = build(manager);
+        SplittableRandom random = new SplittableRandom(42);
+        int slots = board.slots;
+
+        harness.measure("createTask + deleteTaskById", () -> {
+            // Свободный промежуток между занятыми получасами.
+            LocalDateTime start = slot(random.nextInt(slots)).plusMinutes(35);
+            Task task = manager.createTask(new Task("Новая", "Описание", Status.NEW, Duration.ofMinutes(20), start));
+            manager.deleteTaskById(task.getId());
+            return task.getId();
+        });
+        harness.measure("createTask с пересечением (отклонён)", () -> {
+            LocalDateTime start = slot(random.nextInt(slots)).plusMinutes(10);
+            try {
+                manager.createTask(new Task("Новая", "Описание", Status.NEW, Duration.ofMinutes(5), start));
+                throw new IllegalStateException("Пересечение не обнаружено");
+            } catch (IllegalArgumentException e) {
+                return 1;
+            }
+        });
+        harness.measure("getPrioritizedTasks без изменений", () -> manager.getPrioritizedTasks().size());
+        harness.measure("updateTask + getPrioritizedTasks", () -> {
+            Task task = board.tasks.get(random.nextInt(board.tasks.size()));
+            Task updated = new Task(task.getName(), task.getDescription(), Status.IN_PROGRESS,
+                    task.getDuration(), task.getStartTime());
+            updated.setId(task.getId());
+            manager.updateTask(updated);
+            return manager.getPrioritizedTasks().size();
+        });
+        harness.measure("окно расписания в сутки", () -> {
+            LocalDateTime from = slot(random.nextInt(slots));
+            return manager.getPrioritizedTasks(from, from.plusDays(1)).size();
+        });
+        Status[] statuses = Status.values();
+        harness.measure("updateSubtask в эпике", () -> {
+            Subtask subtask = board.subtasks.get(random.nextInt(board.subtasks.size()));
+            Subtask updated = new Subtask(subtask.getName(), subtask.getDescription(),
+                    statuses[random.nextInt(statuses.length)], subtask.getEpicId(),
+                    subtask.getDuration(), subtask.getStartTime());
+            updated.setId(subtask.getId());
+            manager.updateSubtask(updated);
+            return updated.getStatus().ordinal();
+        });
+        harness.measure("getById (с записью в историю)", () -> {
+            Task task = manager.getById(board.ids[random.nextInt(board.ids.length)]);
+            return task.getId();
+        });
+        if (manager instanceof FileBackedTaskManager fileBacked) {
+            fileBacked.close();
+        }
+    }
+
+    private void runPersistence(File file) {
+        FileBackedTaskManager manager = FileBackedTaskManager.loadFromFile(file, Integer.MAX_VALUE);
+        harness.measure("сохранение снимка (compact)", () -> {
+            manager.compact();
+            return file.length();
+        });
+        harness.measure("загрузка снимка (loadFromFile)",
+                () -> FileBackedTaskManager.loadFromFile(file).getAllTasks().size());
+        harness.measure("ленивая загрузка (loadMapped)",
+                () -> FileBackedTaskManager.loadMapped(file).getAllEpics().size());
+        manager.close();
+    }
+
+    private static void benchmarkHistory(BenchHarness harness, int size) {
+        Task[] tasks = new Task[size];
+        for (int i = 0; i < size; i++) {
+            tasks[i] = new Task("Task " + i, "Описание", Status.NEW);
+            tasks[i].setId(i + 1);
+        }
+        InMemoryHistoryManager history = new InMemoryHistoryManager();
+        SplittableRandom random = new SplittableRandom(7);
+        harness.measure("add", () -> {
+            history.add(tasks[random.nextInt(size)]);
+            return history.size();
+        });
+        harness.measure("getHistory", () -> history.getHistory().size());
+        harness.measure("getLast(20)", () -> history.getLast(20).size());
+    }
+
+    private static class Board {
+        final List<Task> tasks = new ArrayList<>();
+        final List<Subtask> subtasks = new ArrayList<>();
+        int[] ids;
+        int slots;
+    }
+
+    // Эпики создаются раньше своих подзадач, чтобы у подзадач были id эпиков.
+    private Board build(TaskManager manager) {
+        Board board = new Board();
+        int taskCount = size / 5;
+        int groups = Math.max(1, (size - taskCount) / (fanOut + 1));
+        List<Epic> epics = new ArrayList<>();
+        List<Mutation> batch = new ArrayList<>();
+        for (int g = 0; g < groups; g++) {
+            Epic epic = new Epic("Эпик " + g, "Описание эпика");
+            epics.add(epic);
+            batch = add(manager, batch, Mutation.create(epic));
+        }
+        flush(manager, batch);
+
+        batch = new ArrayList<>();
+        int slot = 0;
+        for (Epic epic : epics) {
+            for (int i = 0; i < fanOut && board.subtasks.size() + epics.size() + taskCount < size; i++) {
+                Subtask subtask = new Subtask("Подзадача", "Описание подзадачи", Status.NEW, epic.getId(),
+                        Duration.ofMinutes(30), slot(slot++));
+                board.subtasks.add(subtask);
+                batch = add(manager, batch, Mutation.create(subtask));
+            }
+        }
+        for (int i = 0; i < taskCount; i++) {
+            Task task = new Task("Задача", "Описание задачи", Status.NEW, Duration.ofMinutes(30), slot(slot++));
+            board.tasks.add(task);
+            batch = add(manager, batch, Mutation.create(task));
+        }
+        flush(manager, batch);
+
+        board.slots = slot;
+        board.ids = new int[epics.size() + board.subtasks.size() + board.tasks.size()];
+        int position = 0;
+        for (Epic epic : epics) {
+            board.ids[position++] = epic.getId();
+        }
+        for (Subtask subtask : board.subtasks) {
+            board.ids[position++] = subtask.getId();
+        }
+        for (Task task : board.tasks) {
+            board.ids[position++] = task.getId();
+        }
+        return board;
+    }
+
+    private static List<Mutation> add(TaskManager manager, List<Mutation> batch, Mutation mutation) {
+        batch.add(mutation);
+        if (batch.size() < BATCH) {
+            return batch;
+        }
+        flush(manager, batch);
+        return new ArrayList<>();
+    }
+
+    private static void flush(TaskManager manager, List<Mutation> batch) {
+        if (!batch.isEmpty()) {
+            manager.applyBatch(batch);
+        }
+    }
+
+    // Задачи занимают первые полчаса каждого часа.
+    private static LocalDateTime slot(int index) {
+        return BASE.plusHours(index);
+    }
+
+    private static int[] parse(String values) {
+        String[] parts = values.split(",");
+        int[] result = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            result[i] = Integer.parseInt(parts[i].trim());
+        }
+        return result;
+    }
+}
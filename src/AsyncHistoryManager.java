@@ -0,0 +1,149 @@
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+// История, в которую просмотры записываются асинхронно: add только кладёт задачу в неблокирующую
+// очередь, а фоновый поток пачками применяет просмотры к обёрнутой истории под её блокировкой.
+// Удаление и чтение сначала применяют накопленные просмотры, поэтому видят всё, что было
+// просмотрено до вызова, и удалённая задача не возвращается в историю запоздавшим просмотром.
+// Обёрнутая история вызывается из фонового потока, поэтому SessionHistoryManager,
+// привязанный к потоку вызывающего, сюда не подходит.
+public class AsyncHistoryManager implements HistoryManager {
+    private static final int BATCH_SIZE = 256;
+    private static final int MAX_PENDING = 64 * 1024;
+
+    private final HistoryManager delegate;
+    private final Queue<Task> views = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Object lock = new Object();
+    private final Thread consumer;
+    private volatile boolean sleeping;
+    private volatile boolean closed;
+
+    private AsyncHistoryManager(HistoryManager delegate) {
+        this.delegate = delegate;
+        this.consumer = new Thread(this::consume, "history-consumer");
+        consumer.setDaemon(true);
+    }
+
+    // Поток-потребитель запускается после конструктора, когда объект уже полностью создан.
+    public static AsyncHistoryManager start(HistoryManager delegate) {
+        AsyncHistoryManager history = new AsyncHistoryManager(delegate);
+        history.consumer.start();
+        return history;
+    }
+
+    @Override
+    public void add(Task task) {
+        if (task == null) return;
+        views.offer(task);
+        // Если потребитель не успевает, очередь разгружает сам вызывающий.
+        if (pending.incrementAndGet() > MAX_PENDING) {
+            flush();
+        } else if (sleeping) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    @Override
+    public void remove(int id) {
+        synchronized (lock) {
+            drain(Integer.MAX_VALUE);
+            delegate.remove(id);
+        }
+    }
+
+    @Override
+    public void removeAll(Collection<Integer> ids) {
+        synchronized (lock) {
+            drain(Integer.MAX_VALUE);
+            delegate.removeAll(ids);
+        }
+    }
+
+    @Override
+    public List<Task> getHistory() {
+        synchronized (lock) {
+            drain(Integer.MAX_VALUE);
+            return new ArrayList<>(delegate.getHistory());
+        }
+    }
+
+    @Override
+    public int size() {
+        synchronized (lock) {
+            drain(Integer.MAX_VALUE);
+            return delegate.size();
+        }
+    }
+
+    @Override
+    public List<Task> getPage(int offset, int limit) {
+        synchronized (lock) {
+            drain(Integer.MAX_VALUE);
+            return delegate.getPage(offset, limit);
+        }
+    }
+
+    @Override
+    public List<Task> getLast(int count) {
+        synchronized (lock) {
+            drain(Integer.MAX_VALUE);
+            return delegate.getLast(count);
+        }
+    }
+
+    // Синхронно применяет все просмотры, поставленные в очередь до вызова.
+    public void flush() {
+        synchronized (lock) {
+            drain(Integer.MAX_VALUE);
+        }
+    }
+
+    // Останавливает фоновый поток и применяет оставшиеся просмотры.
+    public void close() {
+        closed = true;
+        LockSupport.unpark(consumer);
+        try {
+            consumer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    private void consume() {
+        while (!closed) {
+            int applied;
+            synchronized (lock) {
+                applied = drain(BATCH_SIZE);
+            }
+            if (applied == 0) {
+                sleeping = true;
+                if (views.isEmpty() && !closed) {
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(100));
+                }
+                sleeping = false;
+            }
+        }
+    }
+
+    // Вызывается под lock, чтобы просмотры применялись строго в порядке очереди.
+    private int drain(int limit) {
+        int applied = 0;
+        Task task;
+        while (applied < limit && (task = views.poll()) != null) {
+            delegate.add(task);
+            applied++;
+        }
+        if (applied > 0) {
+            pending.addAndGet(-applied);
+        }
+        return applied;
+    }
+}
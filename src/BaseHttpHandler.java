@@ -0,0 +1,178 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Supplier;
+
+// Общая часть обработчиков HTTP API: разбор пути и параметров, ответы и коды ошибок.
+// Ошибка проверки в менеджере (IllegalArgumentException - например, пересечение по времени)
+// отдаётся как 406, некорректный запрос - как 400, отсутствующий объект - как 404.
+// Ответ всегда с известной длиной, чтобы соединение оставалось открытым для следующего запроса.
+// JSON пишется кодеками из пула: буфер ответа переиспользуется, а не создаётся на каждый запрос.
+// Списки отдаются с ETag по версии коллекции: на If-None-Match с той же версией отвечаем 304,
+// а тело для неизменной версии берётся из ResponseCache и не сериализуется повторно.
+// Коллекция без общей версии (история по сессиям) отдаётся без ETag и мимо кэша.
+public abstract class BaseHttpHandler implements HttpHandler {
+    private static final int POOL_SIZE = 256;
+    private static final int MAX_POOLED_CAPACITY = 1 << 20;
+
+    protected static class HttpError extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final int status;
+
+        public HttpError(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    protected final TaskManager taskManager;
+    private final ResponseCache responses;
+    private final BlockingQueue<TaskJsonCodec> codecs = new ArrayBlockingQueue<>(POOL_SIZE);
+
+    protected BaseHttpHandler(TaskManager taskManager, ResponseCache responses) {
+        this.taskManager = taskManager;
+        this.responses = responses;
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        try {
+            String[] path = exchange.getRequestURI().getPath().split("/");
+            process(exchange, exchange.getRequestMethod(), path);
+        } catch (HttpError e) {
+            sendError(exchange, e.status, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 406, e.getMessage());
+        } catch (RuntimeException e) {
+            sendError(exchange, 500, "Внутренняя ошибка сервера");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    // path - сегменты пути, path[1] - имя ресурса.
+    protected abstract void process(HttpExchange exchange, String method, String[] path) throws IOException;
+
+    protected TaskJsonCodec codec() {
+        TaskJsonCodec codec = codecs.poll();
+        return codec != null ? codec.reset() : new TaskJsonCodec();
+    }
+
+    // Буфер, разросшийся на очень большом ответе, в пул не возвращается.
+    protected void release(TaskJsonCodec codec) {
+        if (codec.capacity() <= MAX_POOLED_CAPACITY) {
+            codecs.offer(codec);
+        }
+    }
+
+    // Отправляет записанное в кодек и возвращает его в пул.
+    protected void sendJson(HttpExchange exchange, int status, TaskJsonCodec json) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json;charset=utf-8");
+        exchange.sendResponseHeaders(status, json.size());
+        try (OutputStream out = exchange.getResponseBody()) {
+            json.writeTo(out);
+        }
+        release(json);
+    }
+
+    protected void sendEmpty(HttpExchange exchange, int status) throws IOException {
+        exchange.sendResponseHeaders(status, -1);
+    }
+
+    // Версия читается до коллекции, поэтому тело не старше своего ETag.
+    protected void sendCollection(HttpExchange exchange, TaskCollection collection,
+                                  Supplier<? extends Collection<? extends Task>> items) throws IOException {
+        long version = taskManager.getVersion(collection);
+        if (version == TaskManager.NO_VERSION) {
+            sendJson(exchange, 200, codec().writeArray(items.get()));
+            return;
+        }
+        String etag = responses.etag(collection, version);
+        exchange.getResponseHeaders().set("ETag", etag);
+        if (matches(exchange.getRequestHeaders().getFirst("If-None-Match"), etag)) {
+            exchange.sendResponseHeaders(304, -1);
+            return;
+        }
+        byte[] body = responses.get(collection, version);
+        if (body == null) {
+            TaskJsonCodec codec = codec();
+            body = codec.writeArray(items.get()).toByteArray();
+            release(codec);
+            responses.put(collection, version, body);
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json;charset=utf-8");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        sendJson(exchange, status, codec().writeError(message));
+    }
+
+    protected byte[] readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            return in.readAllBytes();
+        }
+    }
+
+    protected int parseId(String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new HttpError(400, "Некорректный id: " + value);
+        }
+    }
+
+    protected Map<String, String> queryParams(HttpExchange exchange) {
+        Map<String, String> params = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) {
+            return params;
+        }
+        for (String pair : query.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                params.put(URLDecoder.decode(pair.substring(0, separator), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+
+    protected HttpError notFound(String message) {
+        return new HttpError(404, message);
+    }
+
+    protected HttpError methodNotAllowed(String method) {
+        return new HttpError(405, "Метод не поддерживается: " + method);
+    }
+}
@@ -0,0 +1,32 @@
+import java.util.List;
+
+// Согласованный снимок доски для чтения: неизменяемые списки отсоединённых копий задач.
+public class BoardSnapshot {
+    private final List<Task> tasks;
+    private final List<Epic> epics;
+    private final List<Subtask> subtasks;
+    private final List<Task> prioritizedTasks;
+
+    public BoardSnapshot(List<Task> tasks, List<Epic> epics, List<Subtask> subtasks, List<Task> prioritizedTasks) {
+        this.tasks = tasks;
+        this.epics = epics;
+        this.subtasks = subtasks;
+        this.prioritizedTasks = prioritizedTasks;
+    }
+
+    public List<Task> getTasks() {
+        return tasks;
+    }
+
+    public List<Epic> getEpics() {
+        return epics;
+    }
+
+    public List<Subtask> getSubtasks() {
+        return subtasks;
+    }
+
+    public List<Task> getPrioritizedTasks() {
+        return prioritizedTasks;
+    }
+}
@@ -0,0 +1,98 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Неблокирующая история просмотров: порядок задаётся возрастающим номером просмотра.
+// Запись сначала попадает в order, затем в positions; тот, кто вытеснил прежний номер
+// из positions, удаляет его из order, поэтому у каждой задачи остаётся ровно одна запись.
+// При превышении capacity самые старые записи вытесняются; под гонкой история
+// может ненадолго оказаться на несколько записей длиннее.
+public class ConcurrentHistoryManager implements HistoryManager {
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<Integer, Long> positions = new ConcurrentHashMap<>();
+    private final ConcurrentNavigableMap<Long, Task> order = new ConcurrentSkipListMap<>();
+    private final int capacity;
+
+    public ConcurrentHistoryManager() {
+        this(InMemoryHistoryManager.DEFAULT_CAPACITY);
+    }
+
+    public ConcurrentHistoryManager(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Ёмкость истории должна быть положительной");
+        }
+        this.capacity = capacity;
+    }
+
+    @Override
+    public void add(Task task) {
+        if (task == null) return;
+        long position = sequence.incrementAndGet();
+        order.put(position, task);
+        Long previous = positions.put(task.getId(), position);
+        if (previous != null) {
+            order.remove(previous);
+        } else {
+            evictOverflow();
+        }
+    }
+
+    @Override
+    public void remove(int id) {
+        Long position = positions.remove(id);
+        if (position != null) {
+            order.remove(position);
+        }
+    }
+
+    @Override
+    public List<Task> getHistory() {
+        return new ArrayList<>(order.values());
+    }
+
+    @Override
+    public int size() {
+        return positions.size();
+    }
+
+    @Override
+    public List<Task> getPage(int offset, int limit) {
+        List<Task> page = new ArrayList<>();
+        Iterator<Task> iterator = order.values().iterator();
+        for (int i = 0; i < offset && iterator.hasNext(); i++) {
+            iterator.next();
+        }
+        while (iterator.hasNext() && page.size() < limit) {
+            page.add(iterator.next());
+        }
+        return page;
+    }
+
+    @Override
+    public List<Task> getLast(int count) {
+        List<Task> last = new ArrayList<>();
+        Iterator<Task> iterator = order.descendingMap().values().iterator();
+        while (iterator.hasNext() && last.size() < count) {
+            last.add(iterator.next());
+        }
+        Collections.reverse(last);
+        return last;
+    }
+
+    // Вытесняется запись, которая на момент удаления всё ещё была актуальной для своей задачи.
+    private void evictOverflow() {
+        while (positions.size() > capacity) {
+            Map.Entry<Long, Task> oldest = order.pollFirstEntry();
+            if (oldest == null) {
+                return;
+            }
+            positions.remove(oldest.getValue().getId(), oldest.getKey());
+        }
+    }
+}
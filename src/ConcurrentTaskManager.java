@@ -0,0 +1,742 @@
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Потокобезопасный менеджер задач. Задачи, подзадачи, их списки и расписание читаются
+// без блокировок по конкурентным коллекциям. Эпик меняется на месте под блокировкой своей полосы,
+// поэтому наружу (getEpicById, getById, история, списки) отдаются копии, снятые под ней же;
+// такие чтения и getSubtasksByEpicId могут ждать записи в подзадачи того же эпика.
+// Изменения подзадач и пересчёт эпика защищены полосатыми блокировками по id эпика,
+// поэтому подзадачи разных эпиков меняются параллельно. Общая блокировка расписания
+// берётся для задач и подзадач со временем - ради проверки пересечений, - а также при любом
+// изменении и удалении задачи: обновление и удаление одной задачи не должны чередоваться.
+// Подзадачу по той же причине меняют и удаляют только под блокировкой её эпика.
+public class ConcurrentTaskManager implements TaskManager {
+    private static final int STRIPES = Integer.highestOneBit(
+            Math.max(16, Runtime.getRuntime().availableProcessors() * 4) * 2 - 1);
+
+    private static final int SNAPSHOT_ATTEMPTS = 4;
+
+    private final AtomicInteger nextId = new AtomicInteger(1);
+    // Снимки сбрасываются после того, как изменение стало видно. Эпик меняется на месте
+    // уже после записи подзадачи, поэтому его снимок сбрасывается отдельно, после пересчёта.
+    private final SnapshotCache<Task> taskView = new SnapshotCache<>();
+    private final SnapshotCache<Epic> epicView = new SnapshotCache<>();
+    private final SnapshotCache<Subtask> subtaskView = new SnapshotCache<>();
+    private final SnapshotCache<Task> prioritizedView = new SnapshotCache<>();
+    private final Map<Integer, Task> items = new ConcurrentHashMap<>();
+    private final Map<Integer, Task> tasks = new IndexedTaskMap<>(new ConcurrentHashMap<>(), items,
+            taskView::invalidate);
+    private final Map<Integer, Epic> epics = new IndexedTaskMap<>(new ConcurrentHashMap<>(), items,
+            epicView::invalidate);
+    private final Map<Integer, Subtask> subtasks = new IndexedTaskMap<>(new ConcurrentHashMap<>(), items,
+            subtaskView::invalidate);
+    private final HistoryManager historyManager;
+    private final NavigableSet<Task> prioritizedTasks = new ConcurrentSkipListSet<>(
+            Comparator.comparing(Task::getStartTime,
+                            Comparator.nullsLast(Comparator.naturalOrder()))
+                    .thenComparingInt(Task::getId)
+    );
+    private final TimeSlotIndex timeSlots = new TimeSlotIndex();
+    // Копии задач в расписании по id - как в InMemoryTaskManager; меняются под scheduleLock.
+    private final Map<Integer, Task> scheduled = new ConcurrentHashMap<>();
+    private final ReentrantLock scheduleLock = new ReentrantLock();
+    private final ReentrantLock[] epicLocks = new ReentrantLock[STRIPES];
+    private final ReentrantLock batchLock = new ReentrantLock();
+    private volatile VersionedBoard board;
+    private final LongAdder historyVersion = new LongAdder();
+
+    public ConcurrentTaskManager() {
+        this(Managers.getConcurrentHistory());
+    }
+
+    // История должна быть потокобезопасной, например ConcurrentHistoryManager или SessionHistoryManager.
+    public ConcurrentTaskManager(HistoryManager historyManager) {
+        this.historyManager = historyManager;
+        for (int i = 0; i < epicLocks.length; i++) {
+            epicLocks[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public Task getById(int id) {
+        Task item = items.get(id);
+        if (item == null) {
+            return null;
+        }
+        addToHistory(item);
+        return item instanceof Epic epic ? copyEpic(epic) : item;
+    }
+
+    @Override
+    public List<Task> getAllTasks() {
+        return taskView.get(tasks.values());
+    }
+
+    @Override
+    public void deleteAllTasks() {
+        for (Integer id : tasks.keySet()) {
+            deleteTaskById(id);
+        }
+    }
+
+    @Override
+    public Task getTaskById(int id) {
+        Task task = tasks.get(id);
+        if (task != null) {
+            addToHistory(task);
+        }
+        return task;
+    }
+
+    @Override
+    public Task createTask(Task task) {
+        if (task.getStartTime() == null) {
+            task.setId(nextId.getAndIncrement());
+            tasks.put(task.getId(), task);
+            return task;
+        }
+
+        scheduleLock.lock();
+        try {
+            if (timeSlots.overlaps(task)) {
+                throw new IllegalArgumentException("Задача пересекается по времени с существующей задачей");
+            }
+            task.setId(nextId.getAndIncrement());
+            tasks.put(task.getId(), task);
+            addPrioritized(task);
+        } finally {
+            scheduleLock.unlock();
+        }
+        return task;
+    }
+
+    @Override
+    public void updateTask(Task task) {
+        scheduleLock.lock();
+        try {
+            Task oldTask = tasks.get(task.getId());
+            if (oldTask == null) {
+                return;
+            }
+            removePrioritized(oldTask);
+            if (timeSlots.overlaps(task)) {
+                addPrioritized(oldTask);
+                throw new IllegalArgumentException("Задача пересекается по времени с существующей задачей");
+            }
+            tasks.put(task.getId(), task);
+            addPrioritized(task);
+        } finally {
+            scheduleLock.unlock();
+        }
+    }
+
+    // Удаление идёт под блокировкой расписания и для задач без времени: иначе updateTask,
+    // уже прочитавший прежнюю задачу, вернул бы удалённую обратно в хранилище.
+    @Override
+    public void deleteTaskById(int id) {
+        Task task;
+        scheduleLock.lock();
+        try {
+            task = tasks.remove(id);
+            if (task != null) {
+                removePrioritized(task);
+            }
+        } finally {
+            scheduleLock.unlock();
+        }
+        if (task != null) {
+            removeFromHistory(id);
+        }
+    }
+
+    @Override
+    public List<Epic> getAllEpics() {
+        return epicView.get(this::copyEpics);
+    }
+
+    // Собранный список кэшируется, так что блокировки берутся только после изменений.
+    private List<Epic> copyEpics() {
+        List<Epic> copies = new ArrayList<>(epics.size());
+        for (Epic epic : epics.values()) {
+            copies.add(copyEpic(epic));
+        }
+        return copies;
+    }
+
+    // Эпик копируется под своей блокировкой, чтобы не застать статус, время или состав посреди изменения.
+    private Epic copyEpic(Epic epic) {
+        ReentrantLock lock = epicLock(epic.getId());
+        lock.lock();
+        try {
+            return epic.copy();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // История хранит сами эпики, чтобы показывать их текущее состояние; наружу идут копии.
+    private List<Task> detachEpics(List<Task> history) {
+        List<Task> result = new ArrayList<>(history.size());
+        for (Task item : history) {
+            result.add(item instanceof Epic epic ? copyEpic(epic) : item);
+        }
+        return result;
+    }
+
+    @Override
+    public void deleteAllEpics() {
+        for (Integer id : epics.keySet()) {
+            deleteEpicById(id);
+        }
+    }
+
+    @Override
+    public Epic getEpicById(int id) {
+        Epic epic = epics.get(id);
+        if (epic == null) {
+            return null;
+        }
+        addToHistory(epic);
+        return copyEpic(epic);
+    }
+
+    @Override
+    public Epic createEpic(Epic epic) {
+        epic.setId(nextId.getAndIncrement());
+        epics.put(epic.getId(), epic);
+        return epic;
+    }
+
+    @Override
+    public void updateEpic(Epic epic) {
+        Epic savedEpic = epics.get(epic.getId());
+        if (savedEpic != null) {
+            ReentrantLock lock = epicLock(epic.getId());
+            lock.lock();
+            try {
+                savedEpic.setName(epic.getName());
+                savedEpic.setDescription(epic.getDescription());
+                epicView.invalidate();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public void deleteEpicById(int id) {
+        ReentrantLock lock = epicLock(id);
+        lock.lock();
+        try {
+            Epic epic = epics.remove(id);
+            if (epic == null) {
+                return;
+            }
+            epic.forEachSubtaskId(subtaskId -> {
+                Subtask subtask = subtasks.remove(subtaskId);
+                if (subtask != null) {
+                    unschedule(subtask);
+                }
+                removeFromHistory(subtaskId);
+            });
+            epic.clearSubtaskIds();
+        } finally {
+            lock.unlock();
+        }
+        removeFromHistory(id);
+    }
+
+    @Override
+    public List<Subtask> getAllSubtasks() {
+        return subtaskView.get(subtasks.values());
+    }
+
+    @Override
+    public void deleteAllSubtasks() {
+        for (Integer id : subtasks.keySet()) {
+            deleteSubtaskById(id);
+        }
+    }
+
+    @Override
+    public Subtask getSubtaskById(int id) {
+        Subtask subtask = subtasks.get(id);
+        if (subtask != null) {
+            addToHistory(subtask);
+        }
+        return subtask;
+    }
+
+    @Override
+    public Subtask createSubtask(Subtask subtask) {
+        if (subtask.getEpicId() == subtask.getId()) {
+            throw new IllegalArgumentException("Подзадача не может быть своим собственным эпиком");
+        }
+
+        ReentrantLock lock = epicLock(subtask.getEpicId());
+        lock.lock();
+        try {
+            Epic epic = epics.get(subtask.getEpicId());
+            if (epic == null) {
+                throw new IllegalArgumentException("Эпик с ID " + subtask.getEpicId() + " не существует");
+            }
+            if (subtask.getStartTime() != null) {
+                scheduleLock.lock();
+                try {
+                    if (timeSlots.overlaps(subtask)) {
+                        throw new IllegalArgumentException("Подзадача пересекается по времени с существующей задачей");
+                    }
+                    subtask.setId(nextId.getAndIncrement());
+                    addPrioritized(subtask);
+                } finally {
+                    scheduleLock.unlock();
+                }
+            } else {
+                subtask.setId(nextId.getAndIncrement());
+            }
+            subtasks.put(subtask.getId(), subtask);
+            epic.applySubtask(subtask);
+            epicView.invalidate();
+        } finally {
+            lock.unlock();
+        }
+        return subtask;
+    }
+
+    @Override
+    public void updateSubtask(Subtask subtask) {
+        Subtask current = subtasks.get(subtask.getId());
+        if (current == null) {
+            return;
+        }
+
+        ReentrantLock lock = epicLock(current.getEpicId());
+        lock.lock();
+        try {
+            Subtask savedSubtask = subtasks.get(subtask.getId());
+            Epic epic = savedSubtask == null ? null : epics.get(savedSubtask.getEpicId());
+            if (epic == null || savedSubtask.getEpicId() != current.getEpicId()) {
+                return;
+            }
+            if (savedSubtask.getEpicId() != subtask.getEpicId()) {
+                throw new IllegalArgumentException("Подзадачу нельзя перенести в другой эпик");
+            }
+            if (savedSubtask.getStartTime() != null || subtask.getStartTime() != null) {
+                scheduleLock.lock();
+                try {
+                    removePrioritized(savedSubtask);
+                    if (timeSlots.overlaps(subtask)) {
+                        addPrioritized(savedSubtask);
+                        throw new IllegalArgumentException("Подзадача пересекается по времени с существующей задачей");
+                    }
+                    addPrioritized(subtask);
+                } finally {
+                    scheduleLock.unlock();
+                }
+            }
+            subtasks.put(subtask.getId(), subtask);
+            epic.applySubtask(subtask);
+            epicView.invalidate();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void deleteSubtaskById(int id) {
+        Subtask current = subtasks.get(id);
+        if (current == null) {
+            return;
+        }
+
+        ReentrantLock lock = epicLock(current.getEpicId());
+        lock.lock();
+        try {
+            Subtask subtask = subtasks.get(id);
+            if (subtask == null || subtask.getEpicId() != current.getEpicId()) {
+                return;
+            }
+            subtasks.remove(id);
+            unschedule(subtask);
+            Epic epic = epics.get(subtask.getEpicId());
+            if (epic != null) {
+                epic.removeSubtaskId(id);
+                epicView.invalidate();
+            }
+        } finally {
+            lock.unlock();
+        }
+        removeFromHistory(id);
+    }
+
+    // Список подзадач эпика копируется под его блокировкой: он меняется только вместе с эпиком.
+    // Это единственное чтение по id, которое может ждать записи.
+    @Override
+    public List<Subtask> getSubtasksByEpicId(int epicId) {
+        List<Integer> subtaskIds;
+        ReentrantLock lock = epicLock(epicId);
+        lock.lock();
+        try {
+            Epic epic = epics.get(epicId);
+            if (epic == null) {
+                return Collections.emptyList();
+            }
+            subtaskIds = epic.getSubtaskIds();
+        } finally {
+            lock.unlock();
+        }
+
+        List<Subtask> result = new ArrayList<>(subtaskIds.size());
+        for (int subtaskId : subtaskIds) {
+            Subtask subtask = subtasks.get(subtaskId);
+            if (subtask != null) {
+                result.add(subtask);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<Task> getHistory() {
+        return detachEpics(historyManager.getHistory());
+    }
+
+    @Override
+    public List<Task> getHistory(int offset, int limit) {
+        return detachEpics(historyManager.getPage(offset, limit));
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasks() {
+        return prioritizedView.get(prioritizedTasks);
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasks(LocalDateTime from, LocalDateTime to) {
+        return ScheduleQueries.startingBetween(prioritizedTasks, from, to);
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasksAfter(Task cursor, int limit) {
+        return ScheduleQueries.after(prioritizedTasks, cursor, limit);
+    }
+
+    @Override
+    public List<Task> getTasksAt(LocalDateTime instant) {
+        return ScheduleQueries.overlapping(prioritizedTasks, instant);
+    }
+
+    // Списки собираются без блокировок и принимаются, если за время сборки не сменилась ни одна
+    // версия; иначе сборка повторяется. Это не полная изоляция: изменение, которое ещё не сбросило
+    // свой снимок, может попасть в одни списки и не попасть в другие. После SNAPSHOT_ATTEMPTS
+    // неудачных попыток возвращается последняя сборка, чтобы поток записи не мог задержать чтение.
+    @Override
+    public BoardSnapshot getSnapshot() {
+        VersionedBoard cached = board;
+        long version = viewVersion();
+        if (cached != null && cached.version == version) {
+            return cached.snapshot;
+        }
+        BoardSnapshot snapshot = null;
+        for (int attempt = 0; attempt < SNAPSHOT_ATTEMPTS; attempt++) {
+            snapshot = new BoardSnapshot(getAllTasks(), getAllEpics(), getAllSubtasks(), getPrioritizedTasks());
+            long after = viewVersion();
+            if (after == version) {
+                board = new VersionedBoard(version, snapshot);
+                break;
+            }
+            version = after;
+        }
+        return snapshot;
+    }
+
+    private static class VersionedBoard {
+        final long version;
+        final BoardSnapshot snapshot;
+
+        VersionedBoard(long version, BoardSnapshot snapshot) {
+            this.version = version;
+            this.snapshot = snapshot;
+        }
+    }
+
+    private long viewVersion() {
+        return taskView.getVersion() + epicView.getVersion()
+                + subtaskView.getVersion() + prioritizedView.getVersion();
+    }
+
+    @Override
+    public long getVersion(TaskCollection collection) {
+        return switch (collection) {
+            case TASKS -> taskView.getVersion();
+            case EPICS -> epicView.getVersion();
+            case SUBTASKS -> subtaskView.getVersion();
+            case PRIORITIZED -> prioritizedView.getVersion();
+            // История держит живые эпики, которые меняются на месте.
+            case HISTORY -> historyManager instanceof SessionHistoryManager
+                    ? NO_VERSION : historyVersion.sum() + epicView.getVersion();
+        };
+    }
+
+    // Размер ConcurrentSkipListSet считается обходом, поэтому PRIORITIZED стоит O(n).
+    @Override
+    public int getSize(TaskCollection collection) {
+        return switch (collection) {
+            case TASKS -> tasks.size();
+            case EPICS -> epics.size();
+            case SUBTASKS -> subtasks.size();
+            case PRIORITIZED -> prioritizedTasks.size();
+            case HISTORY -> historyManager.size();
+        };
+    }
+
+    // Пакет держит все блокировки эпиков и расписания, поэтому другие потоки не могут
+    // изменить расписание, задачи и эпики между применением и откатом - откат возвращает
+    // ровно то состояние, которое застал пакет. Без блокировок создаются только задачи без времени
+    // и эпики; пока пакет идёт, такие вызовы проходят и видят его изменения по мере применения,
+    // а ожидают его getSubtasksByEpicId и сборка списка эпиков.
+    // Ограничения отката: удалённое из истории не возвращается, а счётчик id возвращается
+    // назад, только если за время пакета id не выдавались другим потокам.
+    @Override
+    public void applyBatch(List<Mutation> mutations) {
+        List<Runnable> undo = new ArrayList<>();
+        batchLock.lock();
+        for (ReentrantLock lock : epicLocks) {
+            lock.lock();
+        }
+        scheduleLock.lock();
+        try {
+            int savedNextId = nextId.get();
+            try {
+                for (Mutation mutation : mutations) {
+                    apply(mutation, undo);
+                }
+            } catch (RuntimeException e) {
+                for (int i = undo.size() - 1; i >= 0; i--) {
+                    try {
+                        undo.get(i).run();
+                    } catch (RuntimeException undoFailure) {
+                        e.addSuppressed(undoFailure);
+                    }
+                }
+                nextId.compareAndSet(savedNextId + createdInBatch(undo), savedNextId);
+                throw e;
+            }
+        } finally {
+            scheduleLock.unlock();
+            for (int i = epicLocks.length - 1; i >= 0; i--) {
+                epicLocks[i].unlock();
+            }
+            batchLock.unlock();
+        }
+    }
+
+    // Отмена создания - отдельный класс, чтобы при откате посчитать выданные пакетом id.
+    private static class UndoCreate implements Runnable {
+        private final Runnable delete;
+
+        UndoCreate(Runnable delete) {
+            this.delete = delete;
+        }
+
+        @Override
+        public void run() {
+            delete.run();
+        }
+    }
+
+    private static int createdInBatch(List<Runnable> undo) {
+        int created = 0;
+        for (Runnable step : undo) {
+            if (step instanceof UndoCreate) {
+                created++;
+            }
+        }
+        return created;
+    }
+
+    private void apply(Mutation mutation, List<Runnable> undo) {
+        Task task = mutation.getTask();
+        switch (mutation.getKind()) {
+            case CREATE:
+                if (task instanceof Subtask subtask) {
+                    int id = createSubtask(subtask).getId();
+                    undo.add(new UndoCreate(() -> deleteSubtaskById(id)));
+                } else if (task instanceof Epic epic) {
+                    int id = createEpic(epic).getId();
+                    undo.add(new UndoCreate(() -> deleteEpicById(id)));
+                } else {
+                    int id = createTask(task).getId();
+                    undo.add(new UndoCreate(() -> deleteTaskById(id)));
+                }
+                break;
+            case UPDATE:
+                if (task instanceof Subtask subtask) {
+                    Subtask previous = subtasks.get(subtask.getId());
+                    updateSubtask(subtask);
+                    if (previous != null) {
+                        undo.add(() -> updateSubtask(previous));
+                    }
+                } else if (task instanceof Epic epic) {
+                    Epic savedEpic = epics.get(epic.getId());
+                    if (savedEpic != null) {
+                        Epic previous = new Epic(savedEpic.getName(), savedEpic.getDescription());
+                        previous.setId(savedEpic.getId());
+                        updateEpic(epic);
+                        undo.add(() -> updateEpic(previous));
+                    }
+                } else {
+                    Task previous = tasks.get(task.getId());
+                    updateTask(task);
+                    if (previous != null) {
+                        undo.add(() -> updateTask(previous));
+                    }
+                }
+                break;
+            case DELETE:
+                int id = mutation.getId();
+                Task removed = items.get(id);
+                if (removed instanceof Subtask removedSubtask) {
+                    Epic epic = epics.get(removedSubtask.getEpicId());
+                    List<Integer> order = epic == null ? List.of() : epic.getSubtaskIds();
+                    deleteSubtaskById(id);
+                    undo.add(() -> {
+                        restoreEpic(epic, List.of(removedSubtask));
+                        restoreOrder(epic, order);
+                    });
+                } else if (removed instanceof Epic removedEpic) {
+                    List<Subtask> epicSubtasks = getSubtasksByEpicId(id);
+                    deleteEpicById(id);
+                    undo.add(() -> restoreEpic(removedEpic, epicSubtasks));
+                } else if (removed != null) {
+                    deleteTaskById(id);
+                    undo.add(() -> restoreTask(removed));
+                }
+                break;
+        }
+    }
+
+    private void restoreTask(Task task) {
+        scheduleLock.lock();
+        try {
+            tasks.put(task.getId(), task);
+            addPrioritized(task);
+        } finally {
+            scheduleLock.unlock();
+        }
+    }
+
+    // Возвращает эпик (если он был удалён) и его подзадачи; порядок восстановленных подзадач - в конце списка.
+    private void restoreEpic(Epic epic, List<Subtask> epicSubtasks) {
+        if (epic == null) {
+            return;
+        }
+        ReentrantLock lock = epicLock(epic.getId());
+        lock.lock();
+        try {
+            epics.putIfAbsent(epic.getId(), epic);
+            for (Subtask subtask : epicSubtasks) {
+                subtasks.put(subtask.getId(), subtask);
+                if (subtask.getStartTime() != null) {
+                    scheduleLock.lock();
+                    try {
+                        addPrioritized(subtask);
+                    } finally {
+                        scheduleLock.unlock();
+                    }
+                }
+                epic.applySubtask(subtask);
+            }
+            epicView.invalidate();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Восстановленная подзадача добавляется в конец; порядок эпика возвращается к прежнему.
+    private void restoreOrder(Epic epic, List<Integer> order) {
+        if (epic == null || epic.getSubtaskIds().equals(order)) {
+            return;
+        }
+        epic.clearSubtaskIds();
+        for (int subtaskId : order) {
+            Subtask subtask = subtasks.get(subtaskId);
+            if (subtask != null) {
+                epic.applySubtask(subtask);
+            }
+        }
+        epicView.invalidate();
+    }
+
+    @Override
+    public boolean hasTimeOverlap(Task task1, Task task2) {
+        if (task1 == task2) return false;
+        if (task1.getStartTime() == null || task2.getStartTime() == null ||
+                task1.getEndTime() == null || task2.getEndTime() == null) {
+            return false;
+        }
+
+        return !task1.getEndTime().isBefore(task2.getStartTime()) &&
+                !task2.getEndTime().isBefore(task1.getStartTime());
+    }
+
+    // Версия истории растёт после изменения, чтобы прочитавший её видел и само изменение.
+    private void addToHistory(Task task) {
+        historyManager.add(task);
+        historyVersion.increment();
+    }
+
+    private void removeFromHistory(int id) {
+        historyManager.remove(id);
+        historyVersion.increment();
+    }
+
+    private ReentrantLock epicLock(int epicId) {
+        int hash = epicId * 0x9E3779B9;
+        return epicLocks[(hash ^ (hash >>> 16)) & (epicLocks.length - 1)];
+    }
+
+    private void unschedule(Task task) {
+        if (!scheduled.containsKey(task.getId())) {
+            return;
+        }
+        scheduleLock.lock();
+        try {
+            removePrioritized(task);
+        } finally {
+            scheduleLock.unlock();
+        }
+    }
+
+    // Вызываются под scheduleLock.
+    private void addPrioritized(Task task) {
+        if (task.getStartTime() != null) {
+            Task entry = task.copy();
+            Task previous = scheduled.put(entry.getId(), entry);
+            if (previous != null) {
+                prioritizedTasks.remove(previous);
+            }
+            prioritizedTasks.add(entry);
+            timeSlots.add(task);
+            prioritizedView.invalidate();
+        }
+    }
+
+    private void removePrioritized(Task task) {
+        Task entry = scheduled.remove(task.getId());
+        if (entry != null && prioritizedTasks.remove(entry)) {
+            prioritizedView.invalidate();
+        }
+        timeSlots.remove(task.getId());
+    }
+}
@@ -1,12 +1,41 @@
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.IntConsumer;
 
 public class Epic extends Task {
-    private final List<Integer> subtaskIds = new ArrayList<>();
+    // Вклад подзадачи в агрегаты эпика, запомненный на момент учёта:
+    // подзадачу могут изменить на месте, а вычесть нужно именно учтённые значения.
+    private static class Contribution {
+        final Status status;
+        final long minutes;
+        final LocalDateTime start;
+        final LocalDateTime end;
+
+        Contribution(Subtask subtask) {
+            this.status = subtask.getStatus();
+            this.minutes = subtask.getDuration() != null ? subtask.getDuration().toMinutes() : 0;
+            this.start = subtask.getStartTime();
+            this.end = subtask.getStartTime() != null ? subtask.getEndTime() : null;
+        }
+    }
+
+    private final IntLinkedSet subtaskIds = new IntLinkedSet();
     private LocalDateTime endTime;
 
+    private final Map<Integer, Contribution> contributions = new HashMap<>();
+    private final int[] statusCounts = new int[Status.values().length];
+    private long totalMinutes;
+    private final NavigableMap<LocalDateTime, Integer> starts = new TreeMap<>();
+    private final NavigableMap<LocalDateTime, Integer> ends = new TreeMap<>();
+    private boolean aggregateValid = true;
+
     public Epic(String name, String description) {
         super(name, description, Status.NEW);
     }
@@ -20,59 +49,154 @@ public class Epic extends Task {
         this.endTime = endTime;
     }
 
+    @Override
+    public TaskType getType() {
+        return TaskType.EPIC;
+    }
+
+    // Копия несёт состав и вычисленные статус и время, но не агрегаты.
+    @Override
+    public Epic copy() {
+        Epic copy = new Epic(getName(), getDescription());
+        copy.setId(getId());
+        copy.setStatus(getStatus());
+        copy.setDuration(getDuration());
+        copy.setStartTime(getStartTime());
+        copy.setEndTime(endTime);
+        subtaskIds.forEach(copy::addSubtaskId);
+        return copy;
+    }
+
     @Override
     public Duration getDuration() {
         return duration;
     }
 
+    // Копия в порядке добавления; для обхода без упаковки есть forEachSubtaskId.
     public List<Integer> getSubtaskIds() {
-        return subtaskIds;
+        List<Integer> ids = new ArrayList<>(subtaskIds.size());
+        subtaskIds.forEach(ids::add);
+        return ids;
+    }
+
+    public int getSubtaskCount() {
+        return subtaskIds.size();
     }
 
+    public void forEachSubtaskId(IntConsumer action) {
+        subtaskIds.forEach(action);
+    }
+
+    // Добавление id без самой подзадачи (при загрузке) делает агрегаты эпика неактуальными
+    // до следующего recalculate.
     public void addSubtaskId(int subtaskId) {
         subtaskIds.add(subtaskId);
+        aggregateValid = false;
     }
 
     public void removeSubtaskId(int subtaskId) {
-        subtaskIds.remove((Integer) subtaskId);
+        subtaskIds.remove(subtaskId);
+        Contribution contribution = contributions.remove(subtaskId);
+        if (contribution != null) {
+            withdraw(contribution);
+            refresh();
+        }
     }
 
     public void clearSubtaskIds() {
         subtaskIds.clear();
+        resetAggregate();
+        refresh();
     }
 
-    public void updateTimeCharacteristics(List<Subtask> subtasks) {
-        if (subtasks == null || subtasks.isEmpty()) {
-            this.startTime = null;
-            this.duration = Duration.ZERO;
-            this.endTime = null;
-            return;
+    public boolean isAggregateValid() {
+        return aggregateValid;
+    }
+
+    // Добавляет новую подзадачу эпика или заменяет вклад уже учтённой: O(log k) вместо пересчёта по всем.
+    // Агрегаты должны быть актуальны (isAggregateValid), иначе сначала нужен recalculate.
+    public void applySubtask(Subtask subtask) {
+        if (!contributions.containsKey(subtask.getId())) {
+            subtaskIds.add(subtask.getId());
         }
+        Contribution previous = contributions.put(subtask.getId(), new Contribution(subtask));
+        if (previous != null) {
+            withdraw(previous);
+        }
+        contribute(contributions.get(subtask.getId()));
+        refresh();
+    }
 
-        LocalDateTime earliestStart = null;
-        LocalDateTime latestEnd = null;
-        long totalDuration = 0;
+    public void recalculate(List<Subtask> subtasks) {
+        resetAggregate();
+        if (subtasks != null) {
+            for (Subtask subtask : subtasks) {
+                Contribution contribution = new Contribution(subtask);
+                contributions.put(subtask.getId(), contribution);
+                contribute(contribution);
+            }
+        }
+        refresh();
+    }
 
-        for (Subtask subtask : subtasks) {
-            if (subtask.getStartTime() != null) {
-                if (earliestStart == null || subtask.getStartTime().isBefore(earliestStart)) {
-                    earliestStart = subtask.getStartTime();
-                }
+    private void resetAggregate() {
+        contributions.clear();
+        Arrays.fill(statusCounts, 0);
+        totalMinutes = 0;
+        starts.clear();
+        ends.clear();
+        aggregateValid = true;
+    }
 
-                LocalDateTime subtaskEnd = subtask.getEndTime();
-                if (subtaskEnd != null && (latestEnd == null || subtaskEnd.isAfter(latestEnd))) {
-                    latestEnd = subtaskEnd;
-                }
-            }
+    private void contribute(Contribution contribution) {
+        statusCounts[contribution.status.ordinal()]++;
+        totalMinutes += contribution.minutes;
+        if (contribution.start != null) {
+            starts.merge(contribution.start, 1, Integer::sum);
+        }
+        if (contribution.end != null) {
+            ends.merge(contribution.end, 1, Integer::sum);
+        }
+    }
 
-            if (subtask.getDuration() != null) {
-                totalDuration += subtask.getDuration().toMinutes();
-            }
+    private void withdraw(Contribution contribution) {
+        statusCounts[contribution.status.ordinal()]--;
+        totalMinutes -= contribution.minutes;
+        if (contribution.start != null) {
+            decrement(starts, contribution.start);
+        }
+        if (contribution.end != null) {
+            decrement(ends, contribution.end);
+        }
+    }
+
+    private static void decrement(NavigableMap<LocalDateTime, Integer> counts, LocalDateTime key) {
+        counts.computeIfPresent(key, (time, count) -> count == 1 ? null : count - 1);
+    }
+
+    private void refresh() {
+        if (!aggregateValid) {
+            return;
+        }
+        int total = contributions.size();
+        if (total == 0) {
+            this.status = Status.NEW;
+            this.startTime = null;
+            this.duration = Duration.ZERO;
+            this.endTime = null;
+            return;
         }
 
-        this.startTime = earliestStart;
-        this.duration = Duration.ofMinutes(totalDuration);
-        this.endTime = latestEnd;
+        if (statusCounts[Status.NEW.ordinal()] == total) {
+            this.status = Status.NEW;
+        } else if (statusCounts[Status.DONE.ordinal()] == total) {
+            this.status = Status.DONE;
+        } else {
+            this.status = Status.IN_PROGRESS;
+        }
+        this.startTime = starts.isEmpty() ? null : starts.firstKey();
+        this.duration = Duration.ofMinutes(totalMinutes);
+        this.endTime = ends.isEmpty() ? null : ends.lastKey();
     }
 
     @Override
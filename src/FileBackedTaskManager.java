@@ -1,6 +1,14 @@
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -8,88 +16,503 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class FileBackedTaskManager extends InMemoryTaskManager {
+    public static final int DEFAULT_COMPACTION_THRESHOLD = 1000;
+    private static final String HEADER = "id,type,name,status,description,epic,duration,startTime,endTime";
+    private static final String PUT = "PUT";
+    private static final String DELETE = "DEL";
+    private static final String CLEAR = "CLR";
+    private static final String BATCH = "BAT";
+
     private final File file;
+    private SnapshotFormat format;
+    private final TaskJournal journal;
+    private final HistoryJournal historyJournal;
+    private final int compactionThreshold;
+    private final TaskCsvParser parser = new TaskCsvParser();
+    // Хранилища поверх отображённого снимка (только после loadMapped).
+    private final LazyTaskMap<Task> lazyTasks;
+    private final LazyTaskMap<Subtask> lazySubtasks;
+    // Эпики, затронутые журналом при ленивой загрузке: пересчитываются только они.
+    private IntLinkedSet staleEpics;
+    // Записи открытого пакета; в режиме снимка - признак, что снимок нужно переписать.
+    private List<String> batchRecords;
+    private boolean batchDirty;
+    // Пакет из журнала применяется только целиком: записи копятся, пока не придут все.
+    private List<String> replayBatch;
+    private int replayBatchRemaining;
+    private long replayBatchOffset;
+    private int replayBatchStart;
     private static final DateTimeFormatter formatter = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
 
     public FileBackedTaskManager(File file) {
+        this(file, SnapshotFormat.CSV);
+    }
+
+    public FileBackedTaskManager(File file, SnapshotFormat format) {
+        this.file = file;
+        this.format = format;
+        this.journal = null;
+        this.historyJournal = new HistoryJournal(historyFileFor(file));
+        this.compactionThreshold = 0;
+        this.lazyTasks = null;
+        this.lazySubtasks = null;
+    }
+
+    // Журналируемый режим: каждая мутация дописывает одну запись в журнал,
+    // а после compactionThreshold записей состояние сворачивается в снимок.
+    public FileBackedTaskManager(File file, int compactionThreshold) {
+        this(file, new TaskJournal(journalFileFor(file)), compactionThreshold);
+    }
+
+    // Позволяет подставить журнал с групповой фиксацией (GroupCommitJournal).
+    public FileBackedTaskManager(File file, TaskJournal journal, int compactionThreshold) {
+        this(file, SnapshotFormat.CSV, journal, compactionThreshold);
+    }
+
+    public FileBackedTaskManager(File file, SnapshotFormat format, TaskJournal journal, int compactionThreshold) {
+        if (compactionThreshold <= 0) {
+            throw new IllegalArgumentException("Порог сжатия журнала должен быть положительным");
+        }
         this.file = file;
+        this.format = format;
+        this.journal = journal;
+        this.historyJournal = new HistoryJournal(historyFileFor(file));
+        this.compactionThreshold = compactionThreshold;
+        this.lazyTasks = null;
+        this.lazySubtasks = null;
+    }
+
+    private FileBackedTaskManager(File file, LazyTaskMap<Task> lazyTasks, LazyTaskMap<Subtask> lazySubtasks) {
+        super(lazyTasks, new IntHashMap<>(), lazySubtasks);
+        this.file = file;
+        this.format = SnapshotFormat.BINARY;
+        this.journal = null;
+        this.historyJournal = new HistoryJournal(historyFileFor(file));
+        this.compactionThreshold = 0;
+        this.lazyTasks = lazyTasks;
+        this.lazySubtasks = lazySubtasks;
+    }
+
+    public static File journalFileFor(File file) {
+        return new File(file.getPath() + ".journal");
+    }
+
+    public static File historyFileFor(File file) {
+        return new File(file.getPath() + ".history");
     }
 
     public static FileBackedTaskManager loadFromFile(File file) {
         FileBackedTaskManager manager = new FileBackedTaskManager(file);
+        TaskJournal journal = new TaskJournal(journalFileFor(file));
+        manager.load(journal);
+        if (journal.getRecordCount() > 0) {
+            manager.save();
+            journal.truncate();
+        }
+        return manager;
+    }
 
-        try {
-            if (!file.exists() || file.length() == 0) {
-                return manager;
-            }
+    public static FileBackedTaskManager loadFromFile(File file, int compactionThreshold) {
+        return loadFromFile(file, new TaskJournal(journalFileFor(file)), compactionThreshold);
+    }
 
-            String content = Files.readString(file.toPath());
-            String[] lines = content.split("\n");
+    public static FileBackedTaskManager loadFromFile(File file, TaskJournal journal, int compactionThreshold) {
+        FileBackedTaskManager manager = new FileBackedTaskManager(file, journal, compactionThreshold);
+        manager.load(journal);
+        return manager;
+    }
 
-            for (int i = 1; i < lines.length; i++) {
-                String line = lines[i].trim();
-                if (line.isEmpty()) continue;
+    // Ленивая загрузка бинарного снимка: файл отображается в память, эпики и задачи со временем
+    // (нужные для расписания) декодируются сразу, остальные задачи и подзадачи - при первом обращении.
+    // Для CSV и отсутствующего файла выполняется обычная загрузка.
+    public static FileBackedTaskManager loadMapped(File file) {
+        if (SnapshotFormat.detect(file) != SnapshotFormat.BINARY || file.length() > Integer.MAX_VALUE) {
+            return loadFromFile(file);
+        }
 
-                Task task = manager.taskFromString(line);
+        ByteBuffer snapshot;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            snapshot = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка загрузки из файла", e);
+        }
 
-                if (task instanceof Subtask subtask) {
-                    manager.subtasks.put(subtask.getId(), subtask);
-                    if (subtask.getStartTime() != null) {
-                        manager.prioritizedTasks.add(subtask);
-                    }
+        LazyTaskMap<Task> lazyTasks = new LazyTaskMap<>(snapshot, Task.class);
+        LazyTaskMap<Subtask> lazySubtasks = new LazyTaskMap<>(snapshot, Subtask.class);
+        FileBackedTaskManager manager = new FileBackedTaskManager(file, lazyTasks, lazySubtasks);
+        manager.scan(snapshot, lazyTasks, lazySubtasks);
+
+        TaskJournal journal = new TaskJournal(journalFileFor(file));
+        manager.staleEpics = new IntLinkedSet();
+        manager.replayJournal(journal);
+        if (journal.getRecordCount() > 0) {
+            manager.staleEpics.forEach(id -> {
+                Epic epic = manager.epics.get(id);
+                if (epic != null) {
+                    manager.recalculateEpic(epic);
+                }
+            });
+            manager.save();
+            journal.truncate();
+        }
+        manager.staleEpics = null;
+        manager.restoreHistory();
+        return manager;
+    }
+
+    // Сколько задач и подзадач отображённого снимка ещё не декодировано.
+    public int getUnresolvedCount() {
+        return lazyTasks == null ? 0 : lazyTasks.getUnresolvedCount() + lazySubtasks.getUnresolvedCount();
+    }
 
-                    Epic epic = manager.epics.get(subtask.getEpicId());
-                    if (epic != null) {
-                        epic.addSubtaskId(subtask.getId());
+    private void scan(ByteBuffer snapshot, LazyTaskMap<Task> lazyTasks, LazyTaskMap<Subtask> lazySubtasks) {
+        ByteBuffer buffer = snapshot.duplicate();
+        TaskBinaryCodec.readHeader(buffer);
+        TaskBinaryCodec.RecordHeader header = new TaskBinaryCodec.RecordHeader();
+
+        while (TaskBinaryCodec.scan(buffer, header)) {
+            if (header.isEpic() || header.isTimed()) {
+                ByteBuffer record = snapshot.duplicate();
+                record.position(header.getOffset());
+                restore(TaskBinaryCodec.decode(record));
+            } else if (header.isSubtask()) {
+                lazySubtasks.addPending(header.getId(), header.getOffset());
+                Epic epic = epics.get(header.getEpicId());
+                if (epic != null) {
+                    epic.addSubtaskId(header.getId());
+                }
+            } else {
+                lazyTasks.addPending(header.getId(), header.getOffset());
+            }
+
+            if (header.getId() >= nextId) {
+                nextId = header.getId() + 1;
+            }
+        }
+
+        lazyTasks.seal();
+        lazySubtasks.seal();
+    }
+
+    // Формат снимка определяется по файлу и сохраняется для последующих записей.
+    private void load(TaskJournal tail) {
+        if (file.exists() && file.length() > 0) {
+            format = SnapshotFormat.detect(file);
+            try {
+                if (format == SnapshotFormat.BINARY) {
+                    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                        TaskBinaryCodec.readAll(channel, this::restore);
                     }
-                } else if (task instanceof Epic epic) {
-                    manager.epics.put(epic.getId(), epic);
                 } else {
-                    manager.tasks.put(task.getId(), task);
-                    if (task.getStartTime() != null) {
-                        manager.prioritizedTasks.add(task);
+                    try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+                        parser.parseAll(reader, this::restore);
                     }
                 }
+            } catch (IOException e) {
+                throw new ManagerSaveException("Ошибка загрузки из файла", e);
+            }
+        }
+
+        replayJournal(tail);
+
+        for (Epic epic : epics.values()) {
+            recalculateEpic(epic);
+        }
+        restoreHistory();
+    }
+
+    // Просмотры повторяются по порядку; задачи, удалённые после просмотра, пропускаются.
+    private void restoreHistory() {
+        historyJournal.replay(id -> {
+            Task item = findById(id);
+            if (item != null) {
+                historyManager.add(item);
+            }
+        });
+    }
+
+    private void restore(Task task) {
+        if (task instanceof Subtask subtask) {
+            Subtask previous = subtasks.put(subtask.getId(), subtask);
+            if (previous != null) {
+                removePrioritized(previous);
+            }
+            addPrioritized(subtask);
 
-                if (task.getId() >= manager.nextId) {
-                    manager.nextId = task.getId() + 1;
+            Epic epic = epics.get(subtask.getEpicId());
+            if (epic != null && previous == null) {
+                epic.addSubtaskId(subtask.getId());
+            }
+            if (staleEpics != null) {
+                staleEpics.add(subtask.getEpicId());
+            }
+        } else if (task instanceof Epic epic) {
+            Epic savedEpic = epics.get(epic.getId());
+            if (savedEpic != null) {
+                savedEpic.setName(epic.getName());
+                savedEpic.setDescription(epic.getDescription());
+                epicView.invalidate();
+            } else {
+                epics.put(epic.getId(), epic);
+                if (staleEpics != null) {
+                    staleEpics.add(epic.getId());
                 }
             }
+        } else {
+            Task previous = tasks.put(task.getId(), task);
+            if (previous != null) {
+                removePrioritized(previous);
+            }
+            addPrioritized(task);
+        }
+
+        if (task.getId() >= nextId) {
+            nextId = task.getId() + 1;
+        }
+    }
 
-            for (Epic epic : manager.epics.values()) {
-                manager.updateEpicTimeCharacteristics(epic.getId());
+    // Пакет, оборванный сбоем, не применяется и отрезается от журнала: иначе записи,
+    // дописанные после перезапуска, были бы приняты за его продолжение.
+    private void replayJournal(TaskJournal journal) {
+        journal.replay(record -> {
+            if (replayBatchRemaining == 0 && record.startsWith(BATCH + ",")) {
+                replayBatchOffset = journal.getReplayedLength();
+                replayBatchStart = journal.getRecordCount();
             }
+            applyRecord(record);
+        });
+        if (replayBatchRemaining > 0) {
+            journal.truncate(replayBatchOffset, replayBatchStart);
+            replayBatch = null;
+            replayBatchRemaining = 0;
+        }
+    }
 
-        } catch (IOException e) {
-            throw new ManagerSaveException("Ошибка загрузки из файла", e);
+    private void applyRecord(String record) {
+        if (replayBatchRemaining > 0) {
+            replayBatch.add(record);
+            if (--replayBatchRemaining == 0) {
+                List<String> batch = replayBatch;
+                replayBatch = null;
+                for (String batchRecord : batch) {
+                    applyRecord(batchRecord);
+                }
+            }
+            return;
         }
 
-        return manager;
+        int comma = record.indexOf(',');
+        String kind = record.substring(0, comma);
+        String value = record.substring(comma + 1);
+
+        switch (kind) {
+            case BATCH:
+                replayBatchRemaining = Integer.parseInt(value);
+                replayBatch = new ArrayList<>(replayBatchRemaining);
+                break;
+            case PUT:
+                restore(parser.parse(value));
+                break;
+            case DELETE:
+                Task item = findById(Integer.parseInt(value));
+                if (item == null) {
+                    break;
+                }
+                switch (item.getType()) {
+                    case TASK:
+                        super.deleteTaskById(item.getId());
+                        break;
+                    case EPIC:
+                        super.deleteEpicById(item.getId());
+                        break;
+                    case SUBTASK:
+                        super.deleteSubtaskById(item.getId());
+                        break;
+                }
+                break;
+            case CLEAR:
+                if (value.equals("TASK")) {
+                    super.deleteAllTasks();
+                } else if (value.equals("EPIC")) {
+                    super.deleteAllEpics();
+                } else if (value.equals("SUBTASK")) {
+                    super.deleteAllSubtasks();
+                } else {
+                    throw new IllegalArgumentException("Неизвестный тип задачи: " + value);
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Неизвестная запись журнала: " + kind);
+        }
     }
 
     private void save() {
-        try {
-            List<String> lines = new ArrayList<>();
-            lines.add("id,type,name,status,description,epic,duration,startTime,endTime");
+        writeSnapshot(file, format, journal != null);
+        flushHistory();
+    }
 
-            for (Task task : getAllTasks()) {
-                lines.add(taskToString(task));
-            }
+    // Журнал просмотров переписывается текущей историей, когда в нём накопилось
+    // заметно больше записей, чем задач в истории.
+    private void flushHistory() {
+        historyJournal.flush();
+        if (historyJournal.getRecordCount() > Math.max(4 * historyManager.size(), 1024)) {
+            historyJournal.rewrite(historyManager.getHistory());
+        }
+    }
 
-            for (Epic epic : getAllEpics()) {
-                lines.add(taskToString(epic));
-            }
+    private <T extends Task> T recordView(T item) {
+        if (item != null) {
+            historyJournal.record(item.getId());
+        }
+        return item;
+    }
 
-            for (Subtask subtask : getAllSubtasks()) {
-                lines.add(taskToString(subtask));
-            }
+    // CSV остаётся доступным для импорта (loadFromFile определяет формат сам) и экспорта.
+    public void exportSnapshot(File target, SnapshotFormat targetFormat) {
+        writeSnapshot(target, targetFormat, false);
+    }
 
-            Files.write(file.toPath(), lines);
+    private void writeSnapshot(File target, SnapshotFormat targetFormat, boolean force) {
+        Path targetPath = target.toPath();
+        Path temp = targetPath.resolveSibling(targetPath.getFileName() + ".tmp");
+        try {
+            if (targetFormat == SnapshotFormat.BINARY) {
+                writeBinary(temp);
+            } else {
+                writeCsv(temp);
+            }
+            if (force) {
+                // Журнал будет удалён после сжатия, поэтому снимок должен лечь на диск раньше.
+                try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                    channel.force(true);
+                }
+            }
+            Files.move(temp, targetPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
         } catch (IOException e) {
             throw new ManagerSaveException("Ошибка сохранения в файл", e);
         }
     }
 
+    private void writeCsv(Path path) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add(HEADER);
+
+        for (Task task : tasks.values()) {
+            lines.add(taskToString(task));
+        }
+
+        for (Epic epic : epics.values()) {
+            lines.add(taskToString(epic));
+        }
+
+        for (Subtask subtask : subtasks.values()) {
+            lines.add(taskToString(subtask));
+        }
+
+        Files.write(path, lines);
+    }
+
+    private void writeBinary(Path path) throws IOException {
+        try (OutputStream out = Files.newOutputStream(path)) {
+            TaskBinaryCodec codec = new TaskBinaryCodec(out);
+            codec.writeHeader();
+            // Ленивые хранилища пишутся сами, чтобы не декодировать нетронутые записи.
+            // Отображённый файл остаётся доступным: новый снимок заменяет его переименованием.
+            if (lazyTasks != null) {
+                lazyTasks.writeTo(codec);
+            } else {
+                for (Task task : tasks.values()) {
+                    codec.write(task);
+                }
+            }
+            for (Epic epic : epics.values()) {
+                codec.write(epic);
+            }
+            if (lazySubtasks != null) {
+                lazySubtasks.writeTo(codec);
+            } else {
+                for (Subtask subtask : subtasks.values()) {
+                    codec.write(subtask);
+                }
+            }
+            codec.finish();
+        }
+    }
+
+    public void compact() {
+        save();
+        if (journal != null) {
+            journal.truncate();
+        }
+    }
+
+    // Синхронно фиксирует на диске журнал изменений, сделанных до вызова.
+    // Просмотры только дописываются в журнал истории, без fsync.
+    public void flush() {
+        if (journal != null) {
+            journal.flush();
+        }
+        flushHistory();
+    }
+
+    // Ждёт очередной групповой фиксации, не инициируя её.
+    public void awaitDurable() {
+        if (journal != null) {
+            journal.awaitDurable();
+        }
+    }
+
+    public void close() {
+        if (journal != null) {
+            journal.close();
+        }
+        flushHistory();
+    }
+
+    private void persistPut(Task task) {
+        if (journal == null) {
+            persistSnapshot();
+        } else if (task != null) {
+            appendRecord(PUT + "," + taskToString(task));
+        }
+    }
+
+    private void persistDelete(int id, boolean existed) {
+        if (journal == null) {
+            persistSnapshot();
+        } else if (existed) {
+            appendRecord(DELETE + "," + id);
+        }
+    }
+
+    private void persistClear(String type) {
+        if (journal == null) {
+            persistSnapshot();
+        } else {
+            appendRecord(CLEAR + "," + type);
+        }
+    }
+
+    private void persistSnapshot() {
+        if (batchRecords != null) {
+            batchDirty = true;
+        } else {
+            save();
+        }
+    }
+
+    private void appendRecord(String record) {
+        if (batchRecords != null) {
+            batchRecords.add(record);
+            return;
+        }
+        journal.append(record);
+        historyJournal.flush();
+        if (journal.getRecordCount() >= compactionThreshold) {
+            compact();
+        }
+    }
+
     private String taskToString(Task task) {
         String durationStr = task.getDuration() != null ? String.valueOf(task.getDuration().toMinutes()) : "";
         String startTimeStr = task.getStartTime() != null ? task.getStartTime().format(formatter) : "";
@@ -124,130 +547,141 @@ public class FileBackedTaskManager extends InMemoryTaskManager {
         }
     }
 
-    private Task taskFromString(String value) {
-        String[] parts = value.split(",", -1);
-        int id = Integer.parseInt(parts[0]);
-        String type = parts[1];
-        String name = unescapeCommas(parts[2]);
-        Status status = Status.valueOf(parts[3]);
-        String description = unescapeCommas(parts[4]);
+    private String escapeCommas(String str) {
+        return str.replace(",", "\\,");
+    }
 
-        Duration duration = null;
-        if (parts.length > 6 && !parts[6].isEmpty()) {
-            duration = Duration.ofMinutes(Long.parseLong(parts[6]));
+    @Override
+    public void applyBatch(List<Mutation> mutations) {
+        batchRecords = new ArrayList<>();
+        batchDirty = false;
+        try {
+            super.applyBatch(mutations);
+        } finally {
+            batchRecords = null;
         }
-
-        LocalDateTime startTime = null;
-        if (parts.length > 7 && !parts[7].isEmpty()) {
-            startTime = LocalDateTime.parse(parts[7], formatter);
+        // Сжатие уже после фиксации: его сбой не должен откатывать записанный пакет.
+        if (journal != null && journal.getRecordCount() >= compactionThreshold) {
+            compact();
         }
+    }
 
-        switch (type) {
-            case "TASK":
-                Task task = new Task(name, description, status, duration, startTime);
-                task.setId(id);
-                return task;
-            case "EPIC":
-                Epic epic = new Epic(name, description);
-                epic.setId(id);
-                epic.setStatus(status);
-                if (duration != null) epic.setDuration(duration);
-                if (startTime != null) epic.setStartTime(startTime);
-                if (parts.length > 8 && !parts[8].isEmpty()) {
-                    epic.setEndTime(LocalDateTime.parse(parts[8], formatter));
-                }
-                return epic;
-            case "SUBTASK":
-                int epicId = Integer.parseInt(parts[5]);
-                Subtask subtask = new Subtask(name, description, status, epicId, duration, startTime);
-                subtask.setId(id);
-                return subtask;
-            default:
-                throw new IllegalArgumentException("Неизвестный тип задачи: " + type);
+    // Пакет ложится в журнал одной записью с заголовком BAT,<число записей>:
+    // при сбое посреди записи оборванный пакет при восстановлении отбрасывается целиком.
+    @Override
+    protected void commitBatch() {
+        if (journal == null) {
+            if (batchDirty) {
+                save();
+            }
+        } else if (!batchRecords.isEmpty()) {
+            List<String> records = new ArrayList<>(batchRecords.size() + 1);
+            records.add(BATCH + "," + batchRecords.size());
+            records.addAll(batchRecords);
+            journal.appendAll(records);
+            historyJournal.flush();
         }
     }
 
-    private String escapeCommas(String str) {
-        return str.replace(",", "\\,");
+    // Просмотры пишутся в журнал истории через буфер, без обращения к диску на каждое чтение.
+    // Буфер сбрасывается вместе с каждой записью в журнал изменений, а также при save, flush
+    // и close: при сбое теряются только просмотры после последнего изменения (до 1024).
+    @Override
+    public Task getById(int id) {
+        return recordView(super.getById(id));
+    }
+
+    @Override
+    public Task getTaskById(int id) {
+        return recordView(super.getTaskById(id));
     }
 
-    private String unescapeCommas(String str) {
-        return str.replace("\\,", ",");
+    @Override
+    public Epic getEpicById(int id) {
+        return recordView(super.getEpicById(id));
     }
 
-    // Переопределяем методы для вызова save()
+    @Override
+    public Subtask getSubtaskById(int id) {
+        return recordView(super.getSubtaskById(id));
+    }
+
+    // Переопределяем методы для записи изменений
     @Override
     public Task createTask(Task task) {
         Task createdTask = super.createTask(task);
-        save();
+        persistPut(createdTask);
         return createdTask;
     }
 
     @Override
     public void updateTask(Task task) {
         super.updateTask(task);
-        save();
+        persistPut(tasks.get(task.getId()) == task ? task : null);
     }
 
     @Override
     public void deleteTaskById(int id) {
+        boolean existed = tasks.containsKey(id);
         super.deleteTaskById(id);
-        save();
+        persistDelete(id, existed);
     }
 
     @Override
     public void deleteAllTasks() {
         super.deleteAllTasks();
-        save();
+        persistClear("TASK");
     }
 
     @Override
     public Epic createEpic(Epic epic) {
         Epic createdEpic = super.createEpic(epic);
-        save();
+        persistPut(createdEpic);
         return createdEpic;
     }
 
     @Override
     public void updateEpic(Epic epic) {
         super.updateEpic(epic);
-        save();
+        persistPut(epics.get(epic.getId()));
     }
 
     @Override
     public void deleteEpicById(int id) {
+        boolean existed = epics.containsKey(id);
         super.deleteEpicById(id);
-        save();
+        persistDelete(id, existed);
     }
 
     @Override
     public void deleteAllEpics() {
         super.deleteAllEpics();
-        save();
+        persistClear("EPIC");
     }
 
     @Override
     public Subtask createSubtask(Subtask subtask) {
         Subtask createdSubtask = super.createSubtask(subtask);
-        save();
+        persistPut(createdSubtask);
         return createdSubtask;
     }
 
     @Override
     public void updateSubtask(Subtask subtask) {
         super.updateSubtask(subtask);
-        save();
+        persistPut(subtasks.get(subtask.getId()) == subtask ? subtask : null);
     }
 
     @Override
     public void deleteSubtaskById(int id) {
+        boolean existed = subtasks.containsKey(id);
         super.deleteSubtaskById(id);
-        save();
+        persistDelete(id, existed);
     }
 
     @Override
     public void deleteAllSubtasks() {
         super.deleteAllSubtasks();
-        save();
+        persistClear("SUBTASK");
     }
 }
\ No newline at end of file
@@ -0,0 +1,193 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Журнал с групповой фиксацией: записи копятся в памяти и сбрасываются на диск
+// одной записью и одним FileChannel.force либо по заполнению пачки, либо по таймеру.
+// Создаётся через open: таймер запускается уже после конструктора.
+public class GroupCommitJournal extends TaskJournal {
+    private final int batchSize;
+    private final ScheduledExecutorService scheduler;
+    private final Object commitLock = new Object();
+    private List<String> pending = new ArrayList<>();
+    private long appendedSeq;
+    private long durableSeq;
+    private FileChannel channel;
+    private ManagerSaveException failure;
+
+    private GroupCommitJournal(File file, int batchSize) {
+        super(file);
+        this.batchSize = batchSize;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "journal-group-commit");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static GroupCommitJournal open(File file, int batchSize, long windowMillis) {
+        if (batchSize <= 0 || windowMillis <= 0) {
+            throw new IllegalArgumentException("Размер пачки и окно фиксации должны быть положительными");
+        }
+        GroupCommitJournal journal = new GroupCommitJournal(file, batchSize);
+        journal.scheduler.scheduleWithFixedDelay(journal::commitInBackground, windowMillis, windowMillis,
+                TimeUnit.MILLISECONDS);
+        return journal;
+    }
+
+    @Override
+    public void append(String record) {
+        boolean batchFull;
+        synchronized (this) {
+            throwIfFailed();
+            pending.add(record);
+            appendedSeq++;
+            recordCount++;
+            batchFull = pending.size() >= batchSize;
+        }
+        if (batchFull) {
+            commit();
+        }
+    }
+
+    @Override
+    public void appendAll(List<String> records) {
+        boolean batchFull;
+        synchronized (this) {
+            throwIfFailed();
+            pending.addAll(records);
+            appendedSeq += records.size();
+            recordCount += records.size();
+            batchFull = pending.size() >= batchSize;
+        }
+        if (batchFull) {
+            commit();
+        }
+    }
+
+    // Синхронно фиксирует всё, что было добавлено до вызова.
+    @Override
+    public void flush() {
+        commit();
+        synchronized (this) {
+            throwIfFailed();
+        }
+    }
+
+    // Ждёт, пока фоновая фиксация доберётся до всех записей, добавленных до вызова.
+    @Override
+    public void awaitDurable() {
+        synchronized (this) {
+            long target = appendedSeq;
+            while (durableSeq < target) {
+                throwIfFailed();
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new ManagerSaveException("Ожидание фиксации журнала прервано", e);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdown();
+        commit();
+        synchronized (commitLock) {
+            closeChannel();
+        }
+    }
+
+    @Override
+    public void truncate() {
+        synchronized (commitLock) {
+            synchronized (this) {
+                pending.clear();
+                durableSeq = appendedSeq;
+                notifyAll();
+            }
+            closeChannel();
+            super.truncate();
+        }
+    }
+
+    private void commitInBackground() {
+        try {
+            commit();
+        } catch (ManagerSaveException e) {
+            // Ошибка сохранена в failure и будет выброшена вызывающему коду.
+        }
+    }
+
+    private void commit() {
+        synchronized (commitLock) {
+            List<String> batch;
+            long seq;
+            synchronized (this) {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                batch = pending;
+                pending = new ArrayList<>();
+                seq = appendedSeq;
+            }
+
+            StringBuilder builder = new StringBuilder();
+            for (String record : batch) {
+                builder.append(record).append('\n');
+            }
+
+            try {
+                if (channel == null) {
+                    channel = FileChannel.open(getFile().toPath(), StandardOpenOption.CREATE,
+                            StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+                }
+                ByteBuffer buffer = ByteBuffer.wrap(builder.toString().getBytes(StandardCharsets.UTF_8));
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            } catch (IOException e) {
+                synchronized (this) {
+                    failure = new ManagerSaveException("Ошибка фиксации журнала", e);
+                    notifyAll();
+                    throw failure;
+                }
+            }
+
+            synchronized (this) {
+                durableSeq = seq;
+                notifyAll();
+            }
+        }
+    }
+
+    private void closeChannel() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка закрытия журнала", e);
+        } finally {
+            channel = null;
+        }
+    }
+
+    private void throwIfFailed() {
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.util.Map;
+
+// GET /history - вся история, GET /history?offset=&limit= - страница.
+public class HistoryHandler extends BaseHttpHandler {
+    public HistoryHandler(TaskManager taskManager, ResponseCache responses) {
+        super(taskManager, responses);
+    }
+
+    @Override
+    protected void process(HttpExchange exchange, String method, String[] path) throws IOException {
+        if (path.length != 2) {
+            throw notFound("Неизвестный адрес");
+        }
+        if (!method.equals("GET")) {
+            throw methodNotAllowed(method);
+        }
+        Map<String, String> params = queryParams(exchange);
+        if (params.containsKey("limit")) {
+            int offset = parseId(params.getOrDefault("offset", "0"));
+            int limit = parseId(params.get("limit"));
+            sendJson(exchange, 200, codec().writeArray(taskManager.getHistory(offset, limit)));
+        } else {
+            sendCollection(exchange, TaskCollection.HISTORY, taskManager::getHistory);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+// Журнал просмотров: каждый просмотр - 4 байта id в конце файла. Порядок восстанавливается
+// повторным добавлением в историю, поэтому перенос задачи в конец отдельно не записывается,
+// а id удалённых задач при восстановлении просто пропускаются.
+// Просмотры копятся в буфере и пишутся пачкой, чтобы чтение задачи не ждало диска.
+public class HistoryJournal {
+    private static final int BUFFER_IDS = 1024;
+
+    private final File file;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_IDS * Integer.BYTES);
+    private int recordCount;
+    // Новый менеджер начинает историю заново; после replay журнал продолжается.
+    private boolean truncateOnWrite = true;
+
+    public HistoryJournal(File file) {
+        this.file = file;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public int getRecordCount() {
+        return recordCount + buffer.position() / Integer.BYTES;
+    }
+
+    public void record(int id) {
+        if (!buffer.hasRemaining()) {
+            flush();
+        }
+        buffer.putInt(id);
+    }
+
+    public void flush() {
+        if (buffer.position() == 0) {
+            return;
+        }
+        buffer.flip();
+        try (FileChannel channel = openForAppend()) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            recordCount += buffer.limit() / Integer.BYTES;
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка записи истории", e);
+        } finally {
+            buffer.clear();
+        }
+    }
+
+    // Оборванный последний id (меньше 4 байт) пропускается и отрезается от файла,
+    // иначе все следующие записи сместились бы и читались как чужие id.
+    public void replay(IntConsumer consumer) {
+        truncateOnWrite = false;
+        if (!file.exists()) {
+            return;
+        }
+        try {
+            ByteBuffer content = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+            recordCount = 0;
+            while (content.remaining() >= Integer.BYTES) {
+                consumer.accept(content.getInt());
+                recordCount++;
+            }
+            if (content.hasRemaining()) {
+                try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+                    channel.truncate((long) recordCount * Integer.BYTES);
+                }
+            }
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка чтения истории", e);
+        }
+    }
+
+    // Заменяет журнал текущей историей: по одной записи на задачу.
+    public void rewrite(List<Task> history) {
+        Path target = file.toPath();
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        ByteBuffer content = ByteBuffer.allocate(history.size() * Integer.BYTES);
+        for (Task task : history) {
+            content.putInt(task.getId());
+        }
+        content.flip();
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (content.hasRemaining()) {
+                    channel.write(content);
+                }
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка сохранения истории", e);
+        }
+        buffer.clear();
+        recordCount = history.size();
+        truncateOnWrite = false;
+    }
+
+    private FileChannel openForAppend() throws IOException {
+        if (truncateOnWrite) {
+            truncateOnWrite = false;
+            recordCount = 0;
+            return FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        }
+        return FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+}
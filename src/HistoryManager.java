@@ -1,3 +1,4 @@
+import java.util.Collection;
 import java.util.List;
 
 public interface HistoryManager {
@@ -6,5 +7,30 @@ public interface HistoryManager {
 
     void remove(int id);
 
+    default void removeAll(Collection<Integer> ids) {
+        for (int id : ids) {
+            remove(id);
+        }
+    }
+
     List<Task> getHistory();
-}
\ No newline at end of file
+
+    default int size() {
+        return getHistory().size();
+    }
+
+    // Страница истории от самых старых просмотров: не больше limit задач, начиная с offset.
+    default List<Task> getPage(int offset, int limit) {
+        List<Task> history = getHistory();
+        int from = Math.min(Math.max(offset, 0), history.size());
+        int to = Math.min(from + Math.max(limit, 0), history.size());
+        return List.copyOf(history.subList(from, to));
+    }
+
+    // Последние count просмотров в порядке просмотра.
+    default List<Task> getLast(int count) {
+        List<Task> history = getHistory();
+        int from = Math.max(history.size() - Math.max(count, 0), 0);
+        return List.copyOf(history.subList(from, history.size()));
+    }
+}
@@ -0,0 +1,64 @@
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// HTTP API поверх TaskManager. Каждый запрос обрабатывается в своём виртуальном потоке:
+// тысячи открытых keep-alive соединений не занимают потоки платформы, пока ждут следующего запроса.
+// Запросы выполняются параллельно, поэтому менеджер должен быть потокобезопасным
+// (по умолчанию ConcurrentTaskManager). Для MetricsTaskManager доступен ещё и /metrics.
+public class HttpTaskServer {
+    public static final int PORT = 8080;
+    private static final int BACKLOG = 1024;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    public HttpTaskServer(TaskManager taskManager) throws IOException {
+        this(taskManager, PORT);
+    }
+
+    // Порт 0 - любой свободный, фактический возвращает getPort.
+    public HttpTaskServer(TaskManager taskManager, int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(port), BACKLOG);
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        ResponseCache responses = new ResponseCache();
+        server.createContext("/tasks", new TaskItemsHandler(taskManager, TaskType.TASK, responses));
+        server.createContext("/epics", new TaskItemsHandler(taskManager, TaskType.EPIC, responses));
+        server.createContext("/subtasks", new TaskItemsHandler(taskManager, TaskType.SUBTASK, responses));
+        server.createContext("/history", new HistoryHandler(taskManager, responses));
+        server.createContext("/prioritized", new PrioritizedHandler(taskManager, responses));
+        if (taskManager instanceof MetricsTaskManager metrics) {
+            server.createContext("/metrics", new MetricsHandler(metrics, responses));
+        }
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdown();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    // Встроенный сервер пишет заголовки и тело ответа отдельно; с алгоритмом Нейгла и отложенным
+    // подтверждением на клиенте каждый ответ в keep-alive соединении задерживается примерно на 40 мс.
+    // Настройка общая для JVM и читается один раз при первом создании сервера, поэтому задаётся
+    // здесь, до него; приложение, встраивающее HttpTaskServer, задаёт её само (-Dsun.net.httpserver.nodelay=true).
+    public static void main(String[] args) throws IOException {
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        HttpTaskServer server = new HttpTaskServer(Managers.getInstrumented(Managers.getConcurrent()));
+        server.start();
+        System.out.println("HTTP-сервер запущен на порту " + server.getPort());
+    }
+}
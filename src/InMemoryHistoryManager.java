@@ -1,9 +1,13 @@
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
 import java.util.List;
-import java.util.Map;
 
+// История просмотров ограничена capacity: при переполнении вытесняется самый старый просмотр,
+// а его узел переиспользуется для нового. Повторный просмотр переносит существующий узел в конец,
+// поэтому в установившемся режиме add не выделяет память.
 public class InMemoryHistoryManager implements HistoryManager {
+    public static final int DEFAULT_CAPACITY = 1000;
+
     private static class Node {
         Task task;
         Node prev;
@@ -14,15 +18,45 @@ public class InMemoryHistoryManager implements HistoryManager {
         }
     }
 
-    private final Map<Integer, Node> historyMap = new HashMap<>();
+    private final IntHashMap<Node> historyMap = new IntHashMap<>();
+    private final int capacity;
     private Node head;
     private Node tail;
 
+    public InMemoryHistoryManager() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public InMemoryHistoryManager(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Ёмкость истории должна быть положительной");
+        }
+        this.capacity = capacity;
+    }
+
     @Override
     public void add(Task task) {
         if (task == null) return;
-        remove(task.getId());
-        linkLast(task);
+        Node node = historyMap.get(task.getId());
+        if (node != null) {
+            node.task = task;
+            if (node != tail) {
+                removeNode(node);
+                linkLast(node);
+            }
+            return;
+        }
+
+        if (historyMap.size() >= capacity) {
+            node = head;
+            historyMap.remove(node.task.getId());
+            removeNode(node);
+            node.task = task;
+        } else {
+            node = new Node(task);
+        }
+        linkLast(node);
+        historyMap.put(task.getId(), node);
     }
 
     @Override
@@ -33,9 +67,30 @@ public class InMemoryHistoryManager implements HistoryManager {
         }
     }
 
+    // Когда удаляемых id больше, чем записей в истории, дешевле один раз пройти по самой истории.
+    @Override
+    public void removeAll(Collection<Integer> ids) {
+        if (ids.size() <= historyMap.size()) {
+            for (int id : ids) {
+                remove(id);
+            }
+            return;
+        }
+        Node current = head;
+        while (current != null) {
+            Node next = current.next;
+            int id = current.task.getId();
+            if (ids.contains(id)) {
+                historyMap.remove(id);
+                removeNode(current);
+            }
+            current = next;
+        }
+    }
+
     @Override
     public List<Task> getHistory() {
-        List<Task> history = new ArrayList<>();
+        List<Task> history = new ArrayList<>(historyMap.size());
         Node current = head;
         while (current != null) {
             history.add(current.task);
@@ -44,16 +99,47 @@ public class InMemoryHistoryManager implements HistoryManager {
         return history;
     }
 
-    private void linkLast(Task task) {
-        Node newNode = new Node(task);
+    @Override
+    public int size() {
+        return historyMap.size();
+    }
+
+    @Override
+    public List<Task> getPage(int offset, int limit) {
+        List<Task> page = new ArrayList<>(Math.max(Math.min(limit, historyMap.size() - offset), 0));
+        Node current = head;
+        for (int i = 0; i < offset && current != null; i++) {
+            current = current.next;
+        }
+        while (current != null && page.size() < limit) {
+            page.add(current.task);
+            current = current.next;
+        }
+        return page;
+    }
+
+    // Обход с хвоста: стоимость зависит от count, а не от размера истории.
+    @Override
+    public List<Task> getLast(int count) {
+        int size = Math.max(Math.min(count, historyMap.size()), 0);
+        Task[] last = new Task[size];
+        Node current = tail;
+        for (int i = size - 1; i >= 0; i--) {
+            last[i] = current.task;
+            current = current.prev;
+        }
+        return List.of(last);
+    }
+
+    private void linkLast(Node node) {
+        node.next = null;
+        node.prev = tail;
         if (tail == null) {
-            head = newNode;
+            head = node;
         } else {
-            tail.next = newNode;
-            newNode.prev = tail;
+            tail.next = node;
         }
-        tail = newNode;
-        historyMap.put(task.getId(), newNode);
+        tail = node;
     }
 
     private void removeNode(Node node) {
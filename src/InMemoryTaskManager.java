@@ -1,29 +1,88 @@
+import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
 
 public class InMemoryTaskManager implements TaskManager {
     protected int nextId = 1;
-    protected final Map<Integer, Task> tasks = new HashMap<>();
-    protected final Map<Integer, Epic> epics = new HashMap<>();
-    protected final Map<Integer, Subtask> subtasks = new HashMap<>();
-    protected final HistoryManager historyManager = Managers.getDefaultHistory();
+    protected final Map<Integer, Task> tasks;
+    protected final Map<Integer, Epic> epics;
+    protected final Map<Integer, Subtask> subtasks;
+    // Общий индекс всех задач по id; tasks, epics и subtasks - его типизированные представления.
+    protected final IntHashMap<Task> items = new IntHashMap<>();
+    protected final HistoryManager historyManager;
     protected final TreeSet<Task> prioritizedTasks = new TreeSet<>(
             Comparator.comparing(Task::getStartTime,
                             Comparator.nullsLast(Comparator.naturalOrder()))
                     .thenComparingInt(Task::getId)
     );
+    protected final TimeSlotIndex timeSlots = new TimeSlotIndex();
+    // Расписание хранит свои копии задач, по id: менеджер отдаёт наружу сохранённые объекты,
+    // и если вызывающий код поменяет у такого объекта время, TreeSet не должен потерять запись.
+    private final IntHashMap<Task> scheduled = new IntHashMap<>();
+    // Снимки для чтения: getAll* и getPrioritizedTasks отдают неизменяемые списки копий,
+    // которые перестраиваются только после изменения своей коллекции.
+    protected final SnapshotCache<Task> taskView = new SnapshotCache<>();
+    protected final SnapshotCache<Epic> epicView = new SnapshotCache<>();
+    protected final SnapshotCache<Subtask> subtaskView = new SnapshotCache<>();
+    protected final SnapshotCache<Task> prioritizedView = new SnapshotCache<>();
+    private long historyVersion;
+    private BoardSnapshot boardSnapshot;
+    private long boardVersion = -1;
+
+    // Состояние открытого пакета: действия отмены в обратном порядке, исходный состав
+    // подзадач затронутых эпиков и id, которые уберём из истории только при успехе.
+    private Deque<Runnable> undoLog;
+    private Map<Integer, List<Integer>> batchEpicSubtasks;
+    private Set<Integer> batchHistoryRemovals;
+
+    public InMemoryTaskManager() {
+        this(Managers.getDefaultHistory());
+    }
+
+    // Например, SessionHistoryManager для истории по сессиям.
+    public InMemoryTaskManager(HistoryManager historyManager) {
+        this(new IntHashMap<>(), new IntHashMap<>(), new IntHashMap<>(), historyManager);
+    }
+
+    // Позволяет наследникам подставить собственные хранилища, например ленивые LazyTaskMap.
+    protected InMemoryTaskManager(Map<Integer, Task> tasks, Map<Integer, Epic> epics,
+                                  Map<Integer, Subtask> subtasks) {
+        this(tasks, epics, subtasks, Managers.getDefaultHistory());
+    }
+
+    protected InMemoryTaskManager(Map<Integer, Task> tasks, Map<Integer, Epic> epics,
+                                  Map<Integer, Subtask> subtasks, HistoryManager historyManager) {
+        this.historyManager = historyManager;
+        this.tasks = new IndexedTaskMap<>(tasks, items, taskView::invalidate);
+        this.epics = new IndexedTaskMap<>(epics, items, epicView::invalidate);
+        // Подзадача меняет статус, время и состав своего эпика.
+        this.subtasks = new IndexedTaskMap<>(subtasks, items, () -> {
+            subtaskView.invalidate();
+            epicView.invalidate();
+        });
+    }
+
+    @Override
+    public Task getById(int id) {
+        Task item = findById(id);
+        if (item != null) {
+            addToHistory(item);
+        }
+        return item;
+    }
 
     @Override
     public List<Task> getAllTasks() {
-        return new ArrayList<>(tasks.values());
+        return taskView.get(tasks.values());
     }
 
     @Override
     public void deleteAllTasks() {
-        for (Integer id : tasks.keySet()) {
-            historyManager.remove(id);
-            prioritizedTasks.removeIf(task -> task.getId() == id);
+        if (undoLog != null) {
+            Map<Integer, Task> removed = new HashMap<>(tasks);
+            undoLog.push(() -> restoreAll(tasks, removed));
         }
+        forgetAllInHistory(tasks.keySet());
+        removePrioritizedAll(tasks);
         tasks.clear();
     }
 
@@ -31,7 +90,7 @@ public class InMemoryTaskManager implements TaskManager {
     public Task getTaskById(int id) {
         Task task = tasks.get(id);
         if (task != null) {
-            historyManager.add(task);
+            addToHistory(task);
         }
         return task;
     }
@@ -44,9 +103,11 @@ public class InMemoryTaskManager implements TaskManager {
 
         task.setId(nextId++);
         tasks.put(task.getId(), task);
-        if (task.getStartTime() != null) {
-            prioritizedTasks.add(task);
-        }
+        addPrioritized(task);
+        recordUndo(() -> {
+            tasks.remove(task.getId());
+            removePrioritized(task);
+        });
         return task;
     }
 
@@ -54,17 +115,20 @@ public class InMemoryTaskManager implements TaskManager {
     public void updateTask(Task task) {
         if (tasks.containsKey(task.getId())) {
             Task oldTask = tasks.get(task.getId());
-            prioritizedTasks.remove(oldTask);
+            removePrioritized(oldTask);
 
             if (hasAnyTimeOverlap(task)) {
-                prioritizedTasks.add(oldTask);
+                addPrioritized(oldTask);
                 throw new IllegalArgumentException("Задача пересекается по времени с существующей задачей");
             }
 
             tasks.put(task.getId(), task);
-            if (task.getStartTime() != null) {
-                prioritizedTasks.add(task);
-            }
+            addPrioritized(task);
+            recordUndo(() -> {
+                removePrioritized(task);
+                tasks.put(oldTask.getId(), oldTask);
+                addPrioritized(oldTask);
+            });
         }
     }
 
@@ -72,25 +136,33 @@ public class InMemoryTaskManager implements TaskManager {
     public void deleteTaskById(int id) {
         Task task = tasks.remove(id);
         if (task != null) {
-            prioritizedTasks.remove(task);
-            historyManager.remove(id);
+            removePrioritized(task);
+            forgetInHistory(id);
+            recordUndo(() -> {
+                tasks.put(id, task);
+                addPrioritized(task);
+            });
         }
     }
 
     @Override
     public List<Epic> getAllEpics() {
-        return new ArrayList<>(epics.values());
+        return epicView.get(epics.values());
     }
 
     @Override
     public void deleteAllEpics() {
-        for (Integer id : epics.keySet()) {
-            historyManager.remove(id);
-        }
-        for (Integer id : subtasks.keySet()) {
-            historyManager.remove(id);
-            prioritizedTasks.removeIf(task -> task.getId() == id);
+        if (undoLog != null) {
+            Map<Integer, Epic> removedEpics = new HashMap<>(epics);
+            Map<Integer, Subtask> removedSubtasks = new HashMap<>(subtasks);
+            undoLog.push(() -> {
+                epics.putAll(removedEpics);
+                restoreAll(subtasks, removedSubtasks);
+            });
         }
+        forgetAllInHistory(epics.keySet());
+        forgetAllInHistory(subtasks.keySet());
+        removePrioritizedAll(subtasks);
         epics.clear();
         subtasks.clear();
     }
@@ -99,7 +171,7 @@ public class InMemoryTaskManager implements TaskManager {
     public Epic getEpicById(int id) {
         Epic epic = epics.get(id);
         if (epic != null) {
-            historyManager.add(epic);
+            addToHistory(epic);
         }
         return epic;
     }
@@ -108,6 +180,7 @@ public class InMemoryTaskManager implements TaskManager {
     public Epic createEpic(Epic epic) {
         epic.setId(nextId++);
         epics.put(epic.getId(), epic);
+        recordUndo(() -> epics.remove(epic.getId()));
         return epic;
     }
 
@@ -115,8 +188,16 @@ public class InMemoryTaskManager implements TaskManager {
     public void updateEpic(Epic epic) {
         Epic savedEpic = epics.get(epic.getId());
         if (savedEpic != null) {
+            String oldName = savedEpic.getName();
+            String oldDescription = savedEpic.getDescription();
             savedEpic.setName(epic.getName());
             savedEpic.setDescription(epic.getDescription());
+            epicView.invalidate();
+            recordUndo(() -> {
+                savedEpic.setName(oldName);
+                savedEpic.setDescription(oldDescription);
+                epicView.invalidate();
+            });
         }
     }
 
@@ -124,31 +205,45 @@ public class InMemoryTaskManager implements TaskManager {
     public void deleteEpicById(int id) {
         Epic epic = epics.remove(id);
         if (epic != null) {
-            for (int subtaskId : epic.getSubtaskIds()) {
-                prioritizedTasks.removeIf(task -> task.getId() == subtaskId);
-                historyManager.remove(subtaskId);
-                subtasks.remove(subtaskId);
-            }
-            historyManager.remove(id);
+            List<Subtask> removed = new ArrayList<>();
+            epic.forEachSubtaskId(subtaskId -> {
+                Subtask subtask = subtasks.remove(subtaskId);
+                if (subtask != null) {
+                    removePrioritized(subtask);
+                    removed.add(subtask);
+                }
+                forgetInHistory(subtaskId);
+            });
+            forgetInHistory(id);
+            recordUndo(() -> {
+                epics.put(id, epic);
+                for (Subtask subtask : removed) {
+                    subtasks.put(subtask.getId(), subtask);
+                    addPrioritized(subtask);
+                }
+            });
         }
     }
 
     @Override
     public List<Subtask> getAllSubtasks() {
-        return new ArrayList<>(subtasks.values());
+        return subtaskView.get(subtasks.values());
     }
 
     @Override
     public void deleteAllSubtasks() {
-        for (Integer id : subtasks.keySet()) {
-            historyManager.remove(id);
-            prioritizedTasks.removeIf(task -> task.getId() == id);
+        if (undoLog != null) {
+            Map<Integer, Subtask> removed = new HashMap<>(subtasks);
+            for (Epic epic : epics.values()) {
+                touchEpic(epic);
+            }
+            undoLog.push(() -> restoreAll(subtasks, removed));
         }
+        forgetAllInHistory(subtasks.keySet());
+        removePrioritizedAll(subtasks);
         subtasks.clear();
         for (Epic epic : epics.values()) {
             epic.clearSubtaskIds();
-            updateEpicStatus(epic);
-            updateEpicTimeCharacteristics(epic.getId());
         }
     }
 
@@ -156,7 +251,7 @@ public class InMemoryTaskManager implements TaskManager {
     public Subtask getSubtaskById(int id) {
         Subtask subtask = subtasks.get(id);
         if (subtask != null) {
-            historyManager.add(subtask);
+            addToHistory(subtask);
         }
         return subtask;
     }
@@ -175,14 +270,16 @@ public class InMemoryTaskManager implements TaskManager {
             throw new IllegalArgumentException("Подзадача пересекается по времени с существующей задачей");
         }
 
+        ensureEpicAggregate(epic);
+        touchEpic(epic);
         subtask.setId(nextId++);
         subtasks.put(subtask.getId(), subtask);
-        epic.addSubtaskId(subtask.getId());
-        if (subtask.getStartTime() != null) {
-            prioritizedTasks.add(subtask);
-        }
-        updateEpicStatus(epic);
-        updateEpicTimeCharacteristics(epic.getId());
+        addPrioritized(subtask);
+        epic.applySubtask(subtask);
+        recordUndo(() -> {
+            subtasks.remove(subtask.getId());
+            removePrioritized(subtask);
+        });
         return subtask;
     }
 
@@ -190,34 +287,54 @@ public class InMemoryTaskManager implements TaskManager {
     public void updateSubtask(Subtask subtask) {
         Subtask savedSubtask = subtasks.get(subtask.getId());
         if (savedSubtask != null) {
-            prioritizedTasks.remove(savedSubtask);
+            // Вклад подзадачи учтён в агрегатах её эпика, поэтому перенос в другой эпик не поддерживается.
+            if (savedSubtask.getEpicId() != subtask.getEpicId()) {
+                throw new IllegalArgumentException("Подзадачу нельзя перенести в другой эпик");
+            }
+            removePrioritized(savedSubtask);
 
             if (hasAnyTimeOverlap(subtask)) {
-                prioritizedTasks.add(savedSubtask);
+                addPrioritized(savedSubtask);
                 throw new IllegalArgumentException("Подзадача пересекается по времени с существующей задачей");
             }
 
+            Epic epic = epics.get(savedSubtask.getEpicId());
+            if (epic != null) {
+                ensureEpicAggregate(epic);
+                touchEpic(epic);
+            }
             subtasks.put(subtask.getId(), subtask);
-            if (subtask.getStartTime() != null) {
-                prioritizedTasks.add(subtask);
+            addPrioritized(subtask);
+            if (epic != null) {
+                epic.applySubtask(subtask);
             }
-            updateEpicStatus(epics.get(subtask.getEpicId()));
-            updateEpicTimeCharacteristics(subtask.getEpicId());
+            recordUndo(() -> {
+                removePrioritized(subtask);
+                subtasks.put(savedSubtask.getId(), savedSubtask);
+                addPrioritized(savedSubtask);
+            });
         }
     }
 
     @Override
     public void deleteSubtaskById(int id) {
-        Subtask subtask = subtasks.remove(id);
+        Subtask subtask = subtasks.get(id);
         if (subtask != null) {
-            prioritizedTasks.remove(subtask);
             Epic epic = epics.get(subtask.getEpicId());
+            if (epic != null) {
+                ensureEpicAggregate(epic);
+                touchEpic(epic);
+            }
+            subtasks.remove(id);
+            removePrioritized(subtask);
             if (epic != null) {
                 epic.removeSubtaskId(id);
-                updateEpicStatus(epic);
-                updateEpicTimeCharacteristics(epic.getId());
             }
-            historyManager.remove(id);
+            forgetInHistory(id);
+            recordUndo(() -> {
+                subtasks.put(id, subtask);
+                addPrioritized(subtask);
+            });
         }
     }
 
@@ -228,10 +345,14 @@ public class InMemoryTaskManager implements TaskManager {
             return Collections.emptyList();
         }
 
-        return epic.getSubtaskIds().stream()
-                .map(subtasks::get)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
+        List<Subtask> result = new ArrayList<>(epic.getSubtaskCount());
+        epic.forEachSubtaskId(subtaskId -> {
+            Subtask subtask = subtasks.get(subtaskId);
+            if (subtask != null) {
+                result.add(subtask);
+            }
+        });
+        return result;
     }
 
     @Override
@@ -239,9 +360,225 @@ public class InMemoryTaskManager implements TaskManager {
         return historyManager.getHistory();
     }
 
+    @Override
+    public List<Task> getHistory(int offset, int limit) {
+        return historyManager.getPage(offset, limit);
+    }
+
     @Override
     public List<Task> getPrioritizedTasks() {
-        return new ArrayList<>(prioritizedTasks);
+        return prioritizedView.get(prioritizedTasks);
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasks(LocalDateTime from, LocalDateTime to) {
+        return ScheduleQueries.startingBetween(prioritizedTasks, from, to);
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasksAfter(Task cursor, int limit) {
+        return ScheduleQueries.after(prioritizedTasks, cursor, limit);
+    }
+
+    @Override
+    public List<Task> getTasksAt(LocalDateTime instant) {
+        return ScheduleQueries.overlapping(prioritizedTasks, instant);
+    }
+
+    // Менеджер однопоточный, поэтому четыре списка всегда относятся к одному состоянию.
+    @Override
+    public BoardSnapshot getSnapshot() {
+        long version = taskView.getVersion() + epicView.getVersion()
+                + subtaskView.getVersion() + prioritizedView.getVersion();
+        if (boardSnapshot == null || boardVersion != version) {
+            boardSnapshot = new BoardSnapshot(getAllTasks(), getAllEpics(), getAllSubtasks(), getPrioritizedTasks());
+            boardVersion = version;
+        }
+        return boardSnapshot;
+    }
+
+    @Override
+    public long getVersion(TaskCollection collection) {
+        return switch (collection) {
+            case TASKS -> taskView.getVersion();
+            case EPICS -> epicView.getVersion();
+            case SUBTASKS -> subtaskView.getVersion();
+            case PRIORITIZED -> prioritizedView.getVersion();
+            // История держит живые эпики, которые меняются на месте.
+            case HISTORY -> historyManager instanceof SessionHistoryManager
+                    ? NO_VERSION : historyVersion + epicView.getVersion();
+        };
+    }
+
+    @Override
+    public int getSize(TaskCollection collection) {
+        return switch (collection) {
+            case TASKS -> tasks.size();
+            case EPICS -> epics.size();
+            case SUBTASKS -> subtasks.size();
+            case PRIORITIZED -> prioritizedTasks.size();
+            case HISTORY -> historyManager.size();
+        };
+    }
+
+    // Пакет применяется по одному изменению с теми же проверками, что и одиночные вызовы,
+    // но наследник сохраняет результат один раз в commitBatch. При любом исключении
+    // изменения откатываются по журналу отмены, и исключение пробрасывается дальше.
+    @Override
+    public void applyBatch(List<Mutation> mutations) {
+        if (undoLog != null) {
+            throw new IllegalStateException("Пакет изменений уже применяется");
+        }
+        int savedNextId = nextId;
+        undoLog = new ArrayDeque<>();
+        batchEpicSubtasks = new HashMap<>();
+        batchHistoryRemovals = new HashSet<>();
+        try {
+            for (Mutation mutation : mutations) {
+                apply(mutation);
+            }
+            commitBatch();
+            historyManager.removeAll(batchHistoryRemovals);
+            historyVersion++;
+        } catch (RuntimeException e) {
+            rollbackBatch(savedNextId, e);
+            throw e;
+        } finally {
+            undoLog = null;
+            batchEpicSubtasks = null;
+            batchHistoryRemovals = null;
+        }
+    }
+
+    // Вызывается после применения всех изменений пакета, до очистки истории.
+    protected void commitBatch() {
+    }
+
+    private void apply(Mutation mutation) {
+        Task task = mutation.getTask();
+        switch (mutation.getKind()) {
+            case CREATE:
+                if (task instanceof Subtask subtask) {
+                    createSubtask(subtask);
+                } else if (task instanceof Epic epic) {
+                    createEpic(epic);
+                } else {
+                    createTask(task);
+                }
+                break;
+            case UPDATE:
+                if (task instanceof Subtask subtask) {
+                    updateSubtask(subtask);
+                } else if (task instanceof Epic epic) {
+                    updateEpic(epic);
+                } else {
+                    updateTask(task);
+                }
+                break;
+            case DELETE:
+                deleteById(mutation.getId());
+                break;
+        }
+    }
+
+    protected void deleteById(int id) {
+        Task item = findById(id);
+        if (item == null) {
+            return;
+        }
+        switch (item.getType()) {
+            case TASK:
+                deleteTaskById(id);
+                break;
+            case EPIC:
+                deleteEpicById(id);
+                break;
+            case SUBTASK:
+                deleteSubtaskById(id);
+                break;
+        }
+    }
+
+    // Ленивые хранилища (LazyTaskMap) декодируют задачу в обход индекса; пока индекс меньше
+    // суммы хранилищ, промах по нему проверяется в них, а найденная задача попадает в индекс.
+    protected Task findById(int id) {
+        Task item = items.get(id);
+        if (item == null && items.size() < tasks.size() + epics.size() + subtasks.size()) {
+            item = tasks.get(id);
+            if (item == null) {
+                item = subtasks.get(id);
+            }
+            if (item != null) {
+                items.put(id, item);
+            }
+        }
+        return item;
+    }
+
+    // Сбой одного шага отката не прерывает остальные и не подменяет исходное исключение.
+    private void rollbackBatch(int savedNextId, RuntimeException cause) {
+        while (!undoLog.isEmpty()) {
+            try {
+                undoLog.pop().run();
+            } catch (RuntimeException undoFailure) {
+                cause.addSuppressed(undoFailure);
+            }
+        }
+        for (Map.Entry<Integer, List<Integer>> entry : batchEpicSubtasks.entrySet()) {
+            Epic epic = epics.get(entry.getKey());
+            if (epic != null) {
+                epic.clearSubtaskIds();
+                for (int subtaskId : entry.getValue()) {
+                    epic.addSubtaskId(subtaskId);
+                }
+                recalculateEpic(epic);
+            }
+        }
+        epicView.invalidate();
+        nextId = savedNextId;
+    }
+
+    private void recordUndo(Runnable action) {
+        if (undoLog != null) {
+            undoLog.push(action);
+        }
+    }
+
+    // Исходный порядок подзадач эпика запоминается один раз за пакет.
+    private void touchEpic(Epic epic) {
+        if (batchEpicSubtasks != null) {
+            batchEpicSubtasks.computeIfAbsent(epic.getId(), id -> epic.getSubtaskIds());
+        }
+    }
+
+    private void addToHistory(Task task) {
+        historyManager.add(task);
+        historyVersion++;
+    }
+
+    private void forgetInHistory(int id) {
+        if (batchHistoryRemovals != null) {
+            batchHistoryRemovals.add(id);
+        } else {
+            historyManager.remove(id);
+            historyVersion++;
+        }
+    }
+
+    private void forgetAllInHistory(Collection<Integer> ids) {
+        if (batchHistoryRemovals != null) {
+            batchHistoryRemovals.addAll(ids);
+        } else {
+            historyManager.removeAll(ids);
+            historyVersion++;
+        }
+    }
+
+    private <T extends Task> void restoreAll(Map<Integer, T> store, Map<Integer, T> removed) {
+        store.putAll(removed);
+        for (T task : removed.values()) {
+            addPrioritized(task);
+        }
     }
 
     @Override
@@ -257,50 +594,60 @@ public class InMemoryTaskManager implements TaskManager {
     }
 
     private boolean hasAnyTimeOverlap(Task newTask) {
-        if (newTask.getStartTime() == null || newTask.getEndTime() == null) {
-            return false;
-        }
+        return timeSlots.overlaps(newTask);
+    }
 
-        return prioritizedTasks.stream()
-                .filter(task -> task.getStartTime() != null && task.getEndTime() != null)
-                .anyMatch(existingTask -> hasTimeOverlap(newTask, existingTask));
+    protected void addPrioritized(Task task) {
+        if (task.getStartTime() != null) {
+            Task entry = task.copy();
+            Task previous = scheduled.put(entry.getId(), entry);
+            if (previous != null) {
+                prioritizedTasks.remove(previous);
+            }
+            prioritizedTasks.add(entry);
+            timeSlots.add(task);
+            prioritizedView.invalidate();
+        }
     }
 
-    private void updateEpicStatus(Epic epic) {
-        if (epic == null) return;
+    // Запись ищется по id, а не по текущим полям задачи.
+    protected void removePrioritized(Task task) {
+        Task entry = scheduled.remove(task.getId());
+        if (entry != null && prioritizedTasks.remove(entry)) {
+            prioritizedView.invalidate();
+        }
+        timeSlots.remove(task.getId());
+    }
 
-        List<Subtask> epicSubtasks = getSubtasksByEpicId(epic.getId());
-        if (epicSubtasks.isEmpty()) {
-            epic.setStatus(Status.NEW);
+    // Небольшую часть расписания удаляем по ключу за O(log n) на задачу,
+    // большую - одним проходом по prioritizedTasks.
+    protected void removePrioritizedAll(Map<Integer, ? extends Task> removed) {
+        if (removed.isEmpty()) {
             return;
         }
-
-        boolean allNew = true;
-        boolean allDone = true;
-
-        for (Subtask subtask : epicSubtasks) {
-            if (subtask.getStatus() != Status.NEW) {
-                allNew = false;
-            }
-            if (subtask.getStatus() != Status.DONE) {
-                allDone = false;
+        if (removed.size() < prioritizedTasks.size() / 8) {
+            for (Task task : removed.values()) {
+                removePrioritized(task);
             }
+            return;
         }
-
-        if (allNew) {
-            epic.setStatus(Status.NEW);
-        } else if (allDone) {
-            epic.setStatus(Status.DONE);
-        } else {
-            epic.setStatus(Status.IN_PROGRESS);
+        prioritizedTasks.removeIf(task -> removed.containsKey(task.getId()));
+        prioritizedView.invalidate();
+        for (Integer id : removed.keySet()) {
+            scheduled.remove(id.intValue());
+            timeSlots.remove(id);
         }
     }
 
-    protected void updateEpicTimeCharacteristics(int epicId) {
-        Epic epic = epics.get(epicId);
-        if (epic != null) {
-            List<Subtask> epicSubtasks = getSubtasksByEpicId(epicId);
-            epic.updateTimeCharacteristics(epicSubtasks);
+    protected void recalculateEpic(Epic epic) {
+        epic.recalculate(getSubtasksByEpicId(epic.getId()));
+        epicView.invalidate();
+    }
+
+    // После загрузки агрегаты эпика могут быть не построены; строим их один раз перед первым изменением.
+    protected void ensureEpicAggregate(Epic epic) {
+        if (!epic.isAggregateValid()) {
+            recalculateEpic(epic);
         }
     }
 }
\ No newline at end of file
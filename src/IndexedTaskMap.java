@@ -0,0 +1,94 @@
+import java.util.AbstractMap;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+// Типизированное хранилище менеджера поверх общего индекса id -> задача.
+// Данные лежат в своём хранилище, а каждое добавление и удаление повторяется в индексе,
+// поэтому поиск без известного типа - одно обращение к индексу. Обход идёт по своему хранилищу;
+// представления доступны только для чтения, чтобы индекс нельзя было обойти.
+// onChange вызывается после каждого изменения хранилища - так менеджер сбрасывает снимки для чтения.
+public class IndexedTaskMap<T extends Task> extends AbstractMap<Integer, T> {
+    private final Map<Integer, T> store;
+    private final Map<Integer, T> readView;
+    private final Map<Integer, Task> index;
+    private final Runnable onChange;
+
+    public IndexedTaskMap(Map<Integer, T> store, Map<Integer, Task> index) {
+        this(store, index, () -> {
+        });
+    }
+
+    public IndexedTaskMap(Map<Integer, T> store, Map<Integer, Task> index, Runnable onChange) {
+        this.store = store;
+        this.readView = Collections.unmodifiableMap(store);
+        this.index = index;
+        this.onChange = onChange;
+    }
+
+    @Override
+    public T get(Object key) {
+        return store.get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return store.containsKey(key);
+    }
+
+    // При параллельной работе (ConcurrentTaskManager) задача попадает в индекс раньше,
+    // чем в хранилище, а из индекса удаляется только тот объект, что был удалён из хранилища:
+    // гонка добавления и удаления не оставит в индексе задачу, которой нет в хранилище.
+    @Override
+    public T put(Integer key, T value) {
+        index.put(key, value);
+        T previous = store.put(key, value);
+        onChange.run();
+        return previous;
+    }
+
+    @Override
+    public T remove(Object key) {
+        T previous = store.remove(key);
+        if (previous != null) {
+            index.computeIfPresent((Integer) key, (id, indexed) -> indexed == previous ? null : indexed);
+            onChange.run();
+        }
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        for (Integer id : store.keySet()) {
+            index.remove(id);
+        }
+        store.clear();
+        onChange.run();
+    }
+
+    @Override
+    public int size() {
+        return store.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return store.isEmpty();
+    }
+
+    @Override
+    public Set<Integer> keySet() {
+        return readView.keySet();
+    }
+
+    @Override
+    public Collection<T> values() {
+        return readView.values();
+    }
+
+    @Override
+    public Set<Entry<Integer, T>> entrySet() {
+        return readView.entrySet();
+    }
+}
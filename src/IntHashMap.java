@@ -0,0 +1,340 @@
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+// Отображение int -> V без упаковки ключей и без объекта на каждую запись.
+// Ключи и значения лежат в параллельных массивах в порядке добавления, а открытая адресация
+// хранит их позиции - так же, как в IntLinkedSet. Обход идёт в порядке добавления, как у LinkedHashMap.
+// Реализует Map<Integer, V>, поэтому подставляется в хранилища менеджера вместо HashMap;
+// методы с примитивным ключом обходятся без Integer.
+public final class IntHashMap<V> extends AbstractMap<Integer, V> {
+    private static final int FREE = 0;
+    private static final int DELETED = -1;
+
+    private int[] keys;
+    private Object[] values;
+    private boolean[] removed;
+    private int count;
+    private int size;
+    private int[] slots;
+    private int usedSlots;
+
+    public IntHashMap() {
+        this(8);
+    }
+
+    public IntHashMap(int expectedSize) {
+        int capacity = Math.max(8, expectedSize);
+        keys = new int[capacity];
+        values = new Object[capacity];
+        removed = new boolean[capacity];
+        slots = new int[slotCapacity(capacity)];
+    }
+
+    public IntHashMap(Map<Integer, ? extends V> source) {
+        this(source.size());
+        putAll(source);
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        int slot = findSlot(key);
+        return slot < 0 ? null : (V) values[slots[slot] - 1];
+    }
+
+    public boolean containsKey(int key) {
+        return findSlot(key) >= 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        int slot = findSlot(key);
+        if (slot >= 0) {
+            int index = slots[slot] - 1;
+            V previous = (V) values[index];
+            values[index] = value;
+            return previous;
+        }
+        if (count == keys.length) {
+            if (size < count / 2) {
+                compact();
+            } else {
+                int capacity = count * 2;
+                keys = Arrays.copyOf(keys, capacity);
+                values = Arrays.copyOf(values, capacity);
+                removed = Arrays.copyOf(removed, capacity);
+            }
+        }
+        if ((usedSlots + 1) * 2 > slots.length) {
+            rehash(size + 1);
+        }
+        keys[count] = key;
+        values[count] = value;
+        removed[count] = false;
+        insertSlot(key, count);
+        count++;
+        size++;
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        int slot = findSlot(key);
+        if (slot < 0) {
+            return null;
+        }
+        int index = slots[slot] - 1;
+        V previous = (V) values[index];
+        slots[slot] = DELETED;
+        markRemoved(index);
+        if (count > 16 && size < count / 2) {
+            compact();
+        }
+        return previous;
+    }
+
+    @Override
+    public V get(Object key) {
+        return key instanceof Integer id ? get(id.intValue()) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof Integer id && containsKey(id.intValue());
+    }
+
+    @Override
+    public V put(Integer key, V value) {
+        return put(key.intValue(), value);
+    }
+
+    @Override
+    public V remove(Object key) {
+        return key instanceof Integer id ? remove(id.intValue()) : null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(values, 0, count, null);
+        count = 0;
+        size = 0;
+        usedSlots = 0;
+        Arrays.fill(slots, FREE);
+    }
+
+    @Override
+    public Set<Integer> keySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Integer> iterator() {
+                return new Cursor<>() {
+                    @Override
+                    Integer current(int index) {
+                        return keys[index];
+                    }
+                };
+            }
+
+            @Override
+            public boolean contains(Object key) {
+                return containsKey(key);
+            }
+
+            @Override
+            public boolean remove(Object key) {
+                if (!containsKey(key)) {
+                    return false;
+                }
+                IntHashMap.this.remove(key);
+                return true;
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public void clear() {
+                IntHashMap.this.clear();
+            }
+        };
+    }
+
+    @Override
+    public Collection<V> values() {
+        return new AbstractCollection<>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Iterator<V> iterator() {
+                return new Cursor<>() {
+                    @Override
+                    V current(int index) {
+                        return (V) values[index];
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public void clear() {
+                IntHashMap.this.clear();
+            }
+        };
+    }
+
+    @Override
+    public Set<Entry<Integer, V>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Iterator<Entry<Integer, V>> iterator() {
+                return new Cursor<>() {
+                    @Override
+                    Entry<Integer, V> current(int index) {
+                        return new SimpleEntry<>(keys[index], (V) values[index]);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public void clear() {
+                IntHashMap.this.clear();
+            }
+        };
+    }
+
+    // Удаление через итератор только помечает позицию, уплотнение откладывается до следующего изменения.
+    private abstract class Cursor<E> implements Iterator<E> {
+        private int next = skipRemoved(0);
+        private int last = -1;
+
+        abstract E current(int index);
+
+        @Override
+        public boolean hasNext() {
+            return next < count;
+        }
+
+        @Override
+        public E next() {
+            if (next >= count) {
+                throw new NoSuchElementException();
+            }
+            last = next;
+            next = skipRemoved(next + 1);
+            return current(last);
+        }
+
+        @Override
+        public void remove() {
+            if (last < 0 || removed[last]) {
+                throw new IllegalStateException();
+            }
+            slots[findSlot(keys[last])] = DELETED;
+            markRemoved(last);
+        }
+    }
+
+    private int skipRemoved(int index) {
+        while (index < count && removed[index]) {
+            index++;
+        }
+        return index;
+    }
+
+    private void markRemoved(int index) {
+        removed[index] = true;
+        values[index] = null;
+        size--;
+    }
+
+    private void compact() {
+        int live = 0;
+        for (int i = 0; i < count; i++) {
+            if (!removed[i]) {
+                keys[live] = keys[i];
+                values[live] = values[i];
+                removed[live] = false;
+                live++;
+            }
+        }
+        Arrays.fill(values, live, count, null);
+        count = live;
+        rehash(live);
+    }
+
+    private void rehash(int expected) {
+        slots = new int[slotCapacity(expected)];
+        usedSlots = 0;
+        for (int i = 0; i < count; i++) {
+            if (!removed[i]) {
+                insertSlot(keys[i], i);
+            }
+        }
+    }
+
+    // Таблица позиций заполнена от четверти до половины: на запись приходится 8-16 байт.
+    private static int slotCapacity(int expected) {
+        int capacity = 16;
+        while (capacity < expected * 2) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private void insertSlot(int key, int index) {
+        int mask = slots.length - 1;
+        int slot = mix(key) & mask;
+        while (slots[slot] > 0) {
+            slot = (slot + 1) & mask;
+        }
+        if (slots[slot] == FREE) {
+            usedSlots++;
+        }
+        slots[slot] = index + 1;
+    }
+
+    private int findSlot(int key) {
+        int mask = slots.length - 1;
+        int slot = mix(key) & mask;
+        while (slots[slot] != FREE) {
+            int index = slots[slot] - 1;
+            if (index >= 0 && keys[index] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private static int mix(int key) {
+        int hash = key * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,163 @@
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+// Множество int без упаковки, сохраняющее порядок добавления.
+// Элементы лежат подряд в массиве, а открытая адресация хранит их позиции,
+// поэтому удаление - это пометка позиции; массив уплотняется, когда удалённых становится больше половины.
+public class IntLinkedSet {
+    private static final int FREE = 0;
+    private static final int DELETED = -1;
+
+    private int[] elements = new int[8];
+    private boolean[] removed = new boolean[8];
+    private int count;
+    private int size;
+    private int[] slots = new int[16];
+    private int usedSlots;
+
+    public boolean add(int value) {
+        if (contains(value)) {
+            return false;
+        }
+        if (count == elements.length) {
+            if (size < count / 2) {
+                compact();
+            } else {
+                elements = Arrays.copyOf(elements, count * 2);
+                removed = Arrays.copyOf(removed, count * 2);
+            }
+        }
+        if ((usedSlots + 1) * 2 > slots.length) {
+            rehash(size + 1);
+        }
+        elements[count] = value;
+        removed[count] = false;
+        insertSlot(value, count);
+        count++;
+        size++;
+        return true;
+    }
+
+    public boolean remove(int value) {
+        int slot = findSlot(value);
+        if (slot < 0) {
+            return false;
+        }
+        removed[slots[slot] - 1] = true;
+        slots[slot] = DELETED;
+        size--;
+        if (count > 16 && size < count / 2) {
+            compact();
+        }
+        return true;
+    }
+
+    public boolean contains(int value) {
+        return findSlot(value) >= 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        count = 0;
+        size = 0;
+        usedSlots = 0;
+        Arrays.fill(slots, FREE);
+    }
+
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < count; i++) {
+            if (!removed[i]) {
+                action.accept(elements[i]);
+            }
+        }
+    }
+
+    public int[] toArray() {
+        int[] result = new int[size];
+        int position = 0;
+        for (int i = 0; i < count; i++) {
+            if (!removed[i]) {
+                result[position++] = elements[i];
+            }
+        }
+        return result;
+    }
+
+    private void compact() {
+        int live = 0;
+        for (int i = 0; i < count; i++) {
+            if (!removed[i]) {
+                elements[live] = elements[i];
+                removed[live] = false;
+                live++;
+            }
+        }
+        count = live;
+        rehash(live);
+    }
+
+    private void rehash(int expected) {
+        int capacity = 16;
+        while (capacity < expected * 4) {
+            capacity <<= 1;
+        }
+        slots = new int[capacity];
+        usedSlots = 0;
+        for (int i = 0; i < count; i++) {
+            if (!removed[i]) {
+                insertSlot(elements[i], i);
+            }
+        }
+    }
+
+    private void insertSlot(int value, int index) {
+        int mask = slots.length - 1;
+        int slot = mix(value) & mask;
+        while (slots[slot] > 0) {
+            slot = (slot + 1) & mask;
+        }
+        if (slots[slot] == FREE) {
+            usedSlots++;
+        }
+        slots[slot] = index + 1;
+    }
+
+    private int findSlot(int value) {
+        int mask = slots.length - 1;
+        int slot = mix(value) & mask;
+        while (slots[slot] != FREE) {
+            int index = slots[slot] - 1;
+            if (index >= 0 && elements[index] == value) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private static int mix(int value) {
+        int hash = value * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < count; i++) {
+            if (!removed[i]) {
+                if (builder.length() > 1) {
+                    builder.append(", ");
+                }
+                builder.append(elements[i]);
+            }
+        }
+        return builder.append(']').toString();
+    }
+}
@@ -0,0 +1,154 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Set;
+
+// Хранилище задач поверх отображённого в память бинарного снимка.
+// До первого обращения задача занимает 8 байт: id и смещение записи упакованы в один long.
+// Полный объект декодируется при get/put/remove по ключу или при обходе коллекции.
+public class LazyTaskMap<T extends Task> extends AbstractMap<Integer, T> {
+    private final IntHashMap<T> loaded = new IntHashMap<>();
+    private final ByteBuffer snapshot;
+    private final Class<T> type;
+    private long[] pending = new long[16];
+    private int pendingCount;
+    private final BitSet resolved = new BitSet();
+    private int unresolvedCount;
+    private boolean sealed;
+
+    public LazyTaskMap(ByteBuffer snapshot, Class<T> type) {
+        this.snapshot = snapshot;
+        this.type = type;
+    }
+
+    public void addPending(int id, int offset) {
+        if (sealed) {
+            throw new IllegalStateException("Индекс снимка уже построен");
+        }
+        if (pendingCount == pending.length) {
+            pending = Arrays.copyOf(pending, pendingCount * 2);
+        }
+        pending[pendingCount++] = ((long) id << 32) | (offset & 0xFFFFFFFFL);
+    }
+
+    // Вызывается после сканирования снимка: дальше записи ищутся двоичным поиском по id.
+    public void seal() {
+        Arrays.sort(pending, 0, pendingCount);
+        unresolvedCount = pendingCount;
+        sealed = true;
+    }
+
+    public int getUnresolvedCount() {
+        return unresolvedCount;
+    }
+
+    // Загруженные задачи кодируются заново, а нетронутые записи копируются из снимка как есть,
+    // поэтому запись нового снимка не декодирует доску целиком.
+    public void writeTo(TaskBinaryCodec codec) throws IOException {
+        for (T value : loaded.values()) {
+            codec.write(value);
+        }
+        ByteBuffer buffer = snapshot.duplicate();
+        TaskBinaryCodec.RecordHeader header = new TaskBinaryCodec.RecordHeader();
+        for (int i = resolved.nextClearBit(0); i < pendingCount; i = resolved.nextClearBit(i + 1)) {
+            buffer.position((int) pending[i]);
+            TaskBinaryCodec.scan(buffer, header);
+            ByteBuffer record = snapshot.duplicate();
+            record.position(header.getOffset()).limit(buffer.position());
+            codec.writeRaw(record);
+        }
+    }
+
+    @Override
+    public T get(Object key) {
+        if (!(key instanceof Integer id)) {
+            return null;
+        }
+        T value = loaded.get(id);
+        if (value != null) {
+            return value;
+        }
+        int index = find(id);
+        return index < 0 ? null : materialize(index);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        if (!(key instanceof Integer id)) {
+            return false;
+        }
+        return loaded.containsKey(id) || find(id) >= 0;
+    }
+
+    @Override
+    public T put(Integer key, T value) {
+        T previous = get(key);
+        loaded.put(key, value);
+        return previous;
+    }
+
+    @Override
+    public T remove(Object key) {
+        T previous = get(key);
+        if (previous != null) {
+            loaded.remove(key);
+        }
+        return previous;
+    }
+
+    @Override
+    public int size() {
+        return loaded.size() + unresolvedCount;
+    }
+
+    @Override
+    public void clear() {
+        loaded.clear();
+        resolved.set(0, pendingCount);
+        unresolvedCount = 0;
+    }
+
+    @Override
+    public Set<Entry<Integer, T>> entrySet() {
+        materializeAll();
+        return loaded.entrySet();
+    }
+
+    private void materializeAll() {
+        for (int i = resolved.nextClearBit(0); i < pendingCount; i = resolved.nextClearBit(i + 1)) {
+            materialize(i);
+        }
+    }
+
+    private T materialize(int index) {
+        ByteBuffer buffer = snapshot.duplicate();
+        buffer.position((int) pending[index]);
+        T value = type.cast(TaskBinaryCodec.decode(buffer));
+        resolved.set(index);
+        unresolvedCount--;
+        loaded.put(value.getId(), value);
+        return value;
+    }
+
+    private int find(int id) {
+        if (!sealed) {
+            return -1;
+        }
+        int low = 0;
+        int high = pendingCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midId = (int) (pending[mid] >>> 32);
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return resolved.get(mid) ? -1 : mid;
+            }
+        }
+        return -1;
+    }
+}
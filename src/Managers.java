@@ -1,4 +1,5 @@
 import java.io.File;
+import java.time.Duration;
 
 public class Managers {
     public static TaskManager getDefault() {
@@ -6,7 +7,28 @@ public class Managers {
         return new FileBackedTaskManager(file);
     }
 
+    public static TaskManager getConcurrent() {
+        return new ConcurrentTaskManager();
+    }
+
+    // Замеры вызовов любого менеджера; снимок метрик - getMetrics().
+    public static MetricsTaskManager getInstrumented(TaskManager taskManager) {
+        return new MetricsTaskManager(taskManager);
+    }
+
     public static HistoryManager getDefaultHistory() {
         return new InMemoryHistoryManager();
     }
+
+    public static HistoryManager getConcurrentHistory() {
+        return new ConcurrentHistoryManager();
+    }
+
+    public static AsyncHistoryManager getAsyncHistory() {
+        return AsyncHistoryManager.start(new InMemoryHistoryManager());
+    }
+
+    public static SessionHistoryManager getSessionHistory() {
+        return new SessionHistoryManager(InMemoryHistoryManager::new, Duration.ofMinutes(30), 10_000);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+// GET /metrics - снимок MetricsTaskManager в текстовом формате Prometheus.
+public class MetricsHandler extends BaseHttpHandler {
+    private final MetricsTaskManager metrics;
+
+    public MetricsHandler(MetricsTaskManager metrics, ResponseCache responses) {
+        super(metrics, responses);
+        this.metrics = metrics;
+    }
+
+    @Override
+    protected void process(HttpExchange exchange, String method, String[] path) throws IOException {
+        if (path.length != 2) {
+            throw notFound("Неизвестный адрес");
+        }
+        if (!method.equals("GET")) {
+            throw methodNotAllowed(method);
+        }
+        byte[] body = metrics.getMetrics().toText().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
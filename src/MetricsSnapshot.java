@@ -0,0 +1,125 @@
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Снимок метрик MetricsTaskManager на момент чтения: по каждому методу - вызовы, ошибки
+// по классам исключений и гистограмма задержек, плюс размеры коллекций.
+// toText отдаёт его в текстовом формате Prometheus для локального сборщика.
+public class MetricsSnapshot {
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    public static class MethodStats {
+        private final String method;
+        private final long calls;
+        private final Map<String, Long> errors;
+        private final LatencyHistogram.Snapshot latency;
+
+        public MethodStats(String method, long calls, Map<String, Long> errors, LatencyHistogram.Snapshot latency) {
+            this.method = method;
+            this.calls = calls;
+            this.errors = Collections.unmodifiableMap(errors);
+            this.latency = latency;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public long getCalls() {
+            return calls;
+        }
+
+        public long getErrorCount() {
+            long total = 0;
+            for (long count : errors.values()) {
+                total += count;
+            }
+            return total;
+        }
+
+        // Простое имя класса исключения -> количество.
+        public Map<String, Long> getErrors() {
+            return errors;
+        }
+
+        public LatencyHistogram.Snapshot getLatency() {
+            return latency;
+        }
+    }
+
+    private final long timestampMillis;
+    private final List<MethodStats> methods;
+    private final Map<TaskCollection, Integer> sizes;
+
+    public MetricsSnapshot(long timestampMillis, List<MethodStats> methods, Map<TaskCollection, Integer> sizes) {
+        this.timestampMillis = timestampMillis;
+        this.methods = Collections.unmodifiableList(methods);
+        this.sizes = Collections.unmodifiableMap(sizes);
+    }
+
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    public List<MethodStats> getMethods() {
+        return methods;
+    }
+
+    public MethodStats getMethod(String method) {
+        for (MethodStats stats : methods) {
+            if (stats.method.equals(method)) {
+                return stats;
+            }
+        }
+        return null;
+    }
+
+    public Map<TaskCollection, Integer> getSizes() {
+        return sizes;
+    }
+
+    public String toText() {
+        StringBuilder text = new StringBuilder();
+        text.append("# TYPE taskmanager_calls_total counter\n");
+        for (MethodStats stats : methods) {
+            line(text, "taskmanager_calls_total", stats.method, null, stats.calls);
+        }
+        text.append("# TYPE taskmanager_errors_total counter\n");
+        for (MethodStats stats : methods) {
+            for (Map.Entry<String, Long> error : stats.errors.entrySet()) {
+                line(text, "taskmanager_errors_total", stats.method,
+                        "exception=\"" + error.getKey() + "\"", error.getValue());
+            }
+        }
+        text.append("# TYPE taskmanager_latency_nanoseconds summary\n");
+        for (MethodStats stats : methods) {
+            LatencyHistogram.Snapshot latency = stats.latency;
+            for (double quantile : QUANTILES) {
+                line(text, "taskmanager_latency_nanoseconds", stats.method,
+                        String.format(Locale.ROOT, "quantile=\"%s\"", quantile),
+                        latency.getValueAtPercentile(quantile * 100));
+            }
+            line(text, "taskmanager_latency_nanoseconds_sum", stats.method, null, latency.getSum());
+            line(text, "taskmanager_latency_nanoseconds_count", stats.method, null, latency.getCount());
+        }
+        text.append("# TYPE taskmanager_latency_max_nanoseconds gauge\n");
+        for (MethodStats stats : methods) {
+            line(text, "taskmanager_latency_max_nanoseconds", stats.method, null, stats.latency.getMax());
+        }
+        text.append("# TYPE taskmanager_size gauge\n");
+        for (Map.Entry<TaskCollection, Integer> size : sizes.entrySet()) {
+            text.append("taskmanager_size{collection=\"").append(size.getKey().name().toLowerCase(Locale.ROOT))
+                    .append("\"} ").append(size.getValue()).append('\n');
+        }
+        return text.toString();
+    }
+
+    private static void line(StringBuilder text, String metric, String method, String label, long value) {
+        text.append(metric).append("{method=\"").append(method).append('"');
+        if (label != null) {
+            text.append(',').append(label);
+        }
+        text.append("} ").append(value).append('\n');
+    }
+}
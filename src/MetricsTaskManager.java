@@ -0,0 +1,264 @@
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// Обёртка над TaskManager, которая считает по каждому методу вызовы, ошибки (по классу исключения)
+// и задержки в LatencyHistogram. Исключения пробрасываются как есть. Метрики читаются снимком
+// getMetrics: к счётчикам добавляются размеры коллекций, запрошенные у менеджера в момент чтения.
+// getVersion, getSize и hasTimeOverlap не замеряются: это служебные и чистые методы.
+// Запись лишь увеличивает счётчики, поэтому обёртка потокобезопасна, если потокобезопасен менеджер.
+public class MetricsTaskManager implements TaskManager {
+    private static class MethodMetrics {
+        final String method;
+        final LongAdder calls = new LongAdder();
+        final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+        final LatencyHistogram latency = new LatencyHistogram();
+
+        MethodMetrics(String method) {
+            this.method = method;
+        }
+    }
+
+    private final TaskManager delegate;
+    // Заполняется в конструкторе и дальше не меняется.
+    private final Map<String, MethodMetrics> metrics = new LinkedHashMap<>();
+
+    private final MethodMetrics getById = metric("getById");
+    private final MethodMetrics getAllTasks = metric("getAllTasks");
+    private final MethodMetrics deleteAllTasks = metric("deleteAllTasks");
+    private final MethodMetrics getTaskById = metric("getTaskById");
+    private final MethodMetrics createTask = metric("createTask");
+    private final MethodMetrics updateTask = metric("updateTask");
+    private final MethodMetrics deleteTaskById = metric("deleteTaskById");
+    private final MethodMetrics getAllEpics = metric("getAllEpics");
+    private final MethodMetrics deleteAllEpics = metric("deleteAllEpics");
+    private final MethodMetrics getEpicById = metric("getEpicById");
+    private final MethodMetrics createEpic = metric("createEpic");
+    private final MethodMetrics updateEpic = metric("updateEpic");
+    private final MethodMetrics deleteEpicById = metric("deleteEpicById");
+    private final MethodMetrics getAllSubtasks = metric("getAllSubtasks");
+    private final MethodMetrics deleteAllSubtasks = metric("deleteAllSubtasks");
+    private final MethodMetrics getSubtaskById = metric("getSubtaskById");
+    private final MethodMetrics createSubtask = metric("createSubtask");
+    private final MethodMetrics updateSubtask = metric("updateSubtask");
+    private final MethodMetrics deleteSubtaskById = metric("deleteSubtaskById");
+    private final MethodMetrics getHistory = metric("getHistory");
+    private final MethodMetrics getHistoryPage = metric("getHistoryPage");
+    private final MethodMetrics getSubtasksByEpicId = metric("getSubtasksByEpicId");
+    private final MethodMetrics getPrioritizedTasks = metric("getPrioritizedTasks");
+    private final MethodMetrics getPrioritizedWindow = metric("getPrioritizedWindow");
+    private final MethodMetrics getPrioritizedTasksAfter = metric("getPrioritizedTasksAfter");
+    private final MethodMetrics getTasksAt = metric("getTasksAt");
+    private final MethodMetrics getSnapshot = metric("getSnapshot");
+    private final MethodMetrics applyBatch = metric("applyBatch");
+
+    public MetricsTaskManager(TaskManager delegate) {
+        this.delegate = delegate;
+    }
+
+    public TaskManager getDelegate() {
+        return delegate;
+    }
+
+    public MetricsSnapshot getMetrics() {
+        List<MetricsSnapshot.MethodStats> methods = new ArrayList<>(metrics.size());
+        for (MethodMetrics metric : metrics.values()) {
+            Map<String, Long> errors = new LinkedHashMap<>();
+            metric.errors.forEach((exception, count) -> errors.put(exception, count.sum()));
+            methods.add(new MetricsSnapshot.MethodStats(metric.method, metric.calls.sum(), errors,
+                    metric.latency.snapshot()));
+        }
+        Map<TaskCollection, Integer> sizes = new EnumMap<>(TaskCollection.class);
+        for (TaskCollection collection : TaskCollection.values()) {
+            sizes.put(collection, delegate.getSize(collection));
+        }
+        return new MetricsSnapshot(System.currentTimeMillis(), methods, sizes);
+    }
+
+    private MethodMetrics metric(String method) {
+        MethodMetrics metric = new MethodMetrics(method);
+        metrics.put(method, metric);
+        return metric;
+    }
+
+    private <R> R timed(MethodMetrics metric, Supplier<R> call) {
+        long started = System.nanoTime();
+        try {
+            return call.get();
+        } catch (RuntimeException e) {
+            metric.errors.computeIfAbsent(e.getClass().getSimpleName(), name -> new LongAdder()).increment();
+            throw e;
+        } finally {
+            metric.latency.record(System.nanoTime() - started);
+            metric.calls.increment();
+        }
+    }
+
+    private void timed(MethodMetrics metric, Runnable call) {
+        timed(metric, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    @Override
+    public Task getById(int id) {
+        return timed(getById, () -> delegate.getById(id));
+    }
+
+    @Override
+    public List<Task> getAllTasks() {
+        return timed(getAllTasks, delegate::getAllTasks);
+    }
+
+    @Override
+    public void deleteAllTasks() {
+        timed(deleteAllTasks, delegate::deleteAllTasks);
+    }
+
+    @Override
+    public Task getTaskById(int id) {
+        return timed(getTaskById, () -> delegate.getTaskById(id));
+    }
+
+    @Override
+    public Task createTask(Task task) {
+        return timed(createTask, () -> delegate.createTask(task));
+    }
+
+    @Override
+    public void updateTask(Task task) {
+        timed(updateTask, () -> delegate.updateTask(task));
+    }
+
+    @Override
+    public void deleteTaskById(int id) {
+        timed(deleteTaskById, () -> delegate.deleteTaskById(id));
+    }
+
+    @Override
+    public List<Epic> getAllEpics() {
+        return timed(getAllEpics, delegate::getAllEpics);
+    }
+
+    @Override
+    public void deleteAllEpics() {
+        timed(deleteAllEpics, delegate::deleteAllEpics);
+    }
+
+    @Override
+    public Epic getEpicById(int id) {
+        return timed(getEpicById, () -> delegate.getEpicById(id));
+    }
+
+    @Override
+    public Epic createEpic(Epic epic) {
+        return timed(createEpic, () -> delegate.createEpic(epic));
+    }
+
+    @Override
+    public void updateEpic(Epic epic) {
+        timed(updateEpic, () -> delegate.updateEpic(epic));
+    }
+
+    @Override
+    public void deleteEpicById(int id) {
+        timed(deleteEpicById, () -> delegate.deleteEpicById(id));
+    }
+
+    @Override
+    public List<Subtask> getAllSubtasks() {
+        return timed(getAllSubtasks, delegate::getAllSubtasks);
+    }
+
+    @Override
+    public void deleteAllSubtasks() {
+        timed(deleteAllSubtasks, delegate::deleteAllSubtasks);
+    }
+
+    @Override
+    public Subtask getSubtaskById(int id) {
+        return timed(getSubtaskById, () -> delegate.getSubtaskById(id));
+    }
+
+    @Override
+    public Subtask createSubtask(Subtask subtask) {
+        return timed(createSubtask, () -> delegate.createSubtask(subtask));
+    }
+
+    @Override
+    public void updateSubtask(Subtask subtask) {
+        timed(updateSubtask, () -> delegate.updateSubtask(subtask));
+    }
+
+    @Override
+    public void deleteSubtaskById(int id) {
+        timed(deleteSubtaskById, () -> delegate.deleteSubtaskById(id));
+    }
+
+    @Override
+    public List<Task> getHistory() {
+        return timed(getHistory, () -> delegate.getHistory());
+    }
+
+    @Override
+    public List<Task> getHistory(int offset, int limit) {
+        return timed(getHistoryPage, () -> delegate.getHistory(offset, limit));
+    }
+
+    @Override
+    public List<Subtask> getSubtasksByEpicId(int epicId) {
+        return timed(getSubtasksByEpicId, () -> delegate.getSubtasksByEpicId(epicId));
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasks() {
+        return timed(getPrioritizedTasks, () -> delegate.getPrioritizedTasks());
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasks(LocalDateTime from, LocalDateTime to) {
+        return timed(getPrioritizedWindow, () -> delegate.getPrioritizedTasks(from, to));
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasksAfter(Task cursor, int limit) {
+        return timed(getPrioritizedTasksAfter, () -> delegate.getPrioritizedTasksAfter(cursor, limit));
+    }
+
+    @Override
+    public List<Task> getTasksAt(LocalDateTime instant) {
+        return timed(getTasksAt, () -> delegate.getTasksAt(instant));
+    }
+
+    @Override
+    public BoardSnapshot getSnapshot() {
+        return timed(getSnapshot, delegate::getSnapshot);
+    }
+
+    @Override
+    public long getVersion(TaskCollection collection) {
+        return delegate.getVersion(collection);
+    }
+
+    @Override
+    public int getSize(TaskCollection collection) {
+        return delegate.getSize(collection);
+    }
+
+    @Override
+    public void applyBatch(List<Mutation> mutations) {
+        timed(applyBatch, () -> delegate.applyBatch(mutations));
+    }
+
+    @Override
+    public boolean hasTimeOverlap(Task task1, Task task2) {
+        return delegate.hasTimeOverlap(task1, task2);
+    }
+}
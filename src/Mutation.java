@@ -0,0 +1,43 @@
+// Одно изменение в пакете TaskManager.applyBatch. Тип задачи при создании и обновлении
+// определяется по классу объекта, при удалении - по тому, в каком хранилище найден id.
+public class Mutation {
+    public enum Kind {
+        CREATE,
+        UPDATE,
+        DELETE
+    }
+
+    private final Kind kind;
+    private final Task task;
+    private final int id;
+
+    private Mutation(Kind kind, Task task, int id) {
+        this.kind = kind;
+        this.task = task;
+        this.id = id;
+    }
+
+    public static Mutation create(Task task) {
+        return new Mutation(Kind.CREATE, task, task.getId());
+    }
+
+    public static Mutation update(Task task) {
+        return new Mutation(Kind.UPDATE, task, task.getId());
+    }
+
+    public static Mutation delete(int id) {
+        return new Mutation(Kind.DELETE, null, id);
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public Task getTask() {
+        return task;
+    }
+
+    public int getId() {
+        return id;
+    }
+}
@@ -0,0 +1,42 @@
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+
+// GET /prioritized - всё расписание, GET /prioritized?from=&to= - задачи, начинающиеся в окне.
+public class PrioritizedHandler extends BaseHttpHandler {
+    public PrioritizedHandler(TaskManager taskManager, ResponseCache responses) {
+        super(taskManager, responses);
+    }
+
+    @Override
+    protected void process(HttpExchange exchange, String method, String[] path) throws IOException {
+        if (path.length != 2) {
+            throw notFound("Неизвестный адрес");
+        }
+        if (!method.equals("GET")) {
+            throw methodNotAllowed(method);
+        }
+        Map<String, String> params = queryParams(exchange);
+        if (params.containsKey("from") || params.containsKey("to")) {
+            LocalDateTime from = parseTime(params.get("from"));
+            LocalDateTime to = parseTime(params.get("to"));
+            sendJson(exchange, 200, codec().writeArray(taskManager.getPrioritizedTasks(from, to)));
+        } else {
+            sendCollection(exchange, TaskCollection.PRIORITIZED, taskManager::getPrioritizedTasks);
+        }
+    }
+
+    private LocalDateTime parseTime(String value) {
+        if (value == null) {
+            throw new HttpError(400, "Окно задаётся параметрами from и to");
+        }
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new HttpError(400, "Некорректное время: " + value);
+        }
+    }
+}
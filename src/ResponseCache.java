@@ -0,0 +1,36 @@
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Последнее сериализованное тело ответа для каждой коллекции вместе с версией, по которой оно собрано.
+// ETag - это коллекция и версия; к ним добавлена случайная метка запуска, потому что после
+// перезапуска версии начинаются заново, и старый ETag мог бы совпасть с другим содержимым.
+public class ResponseCache {
+    private static class Entry {
+        final long version;
+        final byte[] body;
+
+        Entry(long version, byte[] body) {
+            this.version = version;
+            this.body = body;
+        }
+    }
+
+    private final String epoch = Long.toHexString(ThreadLocalRandom.current().nextLong());
+    private final AtomicReferenceArray<Entry> entries = new AtomicReferenceArray<>(TaskCollection.values().length);
+
+    public String etag(TaskCollection collection, long version) {
+        return "\"" + epoch + "-" + collection.name().toLowerCase() + "-" + version + "\"";
+    }
+
+    public byte[] get(TaskCollection collection, long version) {
+        Entry entry = entries.get(collection.ordinal());
+        return entry != null && entry.version == version ? entry.body : null;
+    }
+
+    // Более старая версия не вытесняет более новую, собранную параллельно.
+    public void put(TaskCollection collection, long version, byte[] body) {
+        Entry entry = new Entry(version, body);
+        entries.accumulateAndGet(collection.ordinal(), entry,
+                (current, candidate) -> current == null || current.version <= candidate.version ? candidate : current);
+    }
+}
@@ -0,0 +1,83 @@
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableSet;
+
+// Запросы к расписанию (prioritizedTasks) по диапазону за O(log n + k).
+// Расписание упорядочено по началу, затем по id, поэтому границы задаются пробными задачами
+// с нужным началом и крайним id. Задачи с началом и длительностью не пересекаются,
+// поэтому по началу упорядочены и их концы. Задачи с началом без длительности тоже
+// стоят в расписании, но конца у них нет и в проверке пересечений они не участвуют.
+// Как и getPrioritizedTasks, запросы возвращают неизменяемые списки копий.
+public class ScheduleQueries {
+    private ScheduleQueries() {
+    }
+
+    // Задачи, начинающиеся в [from, to).
+    public static List<Task> startingBetween(NavigableSet<Task> schedule, LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Границы окна должны быть заданы");
+        }
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("Конец окна раньше его начала");
+        }
+        return copyOf(schedule.subSet(probe(from, Integer.MIN_VALUE), true,
+                probe(to, Integer.MIN_VALUE), false), Integer.MAX_VALUE);
+    }
+
+    // Не больше limit задач, идущих в расписании после cursor - последней задачи предыдущей страницы.
+    // Курсор сравнивается по началу и id, поэтому подойдёт и копия, и удалённая с тех пор задача.
+    // Без курсора страница начинается с начала расписания.
+    public static List<Task> after(NavigableSet<Task> schedule, Task cursor, int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Размер страницы не может быть отрицательным");
+        }
+        if (cursor == null) {
+            return copyOf(schedule, limit);
+        }
+        if (cursor.getStartTime() == null) {
+            throw new IllegalArgumentException("Курсор расписания должен иметь время начала");
+        }
+        return copyOf(schedule.tailSet(probe(cursor.getStartTime(), cursor.getId()), false), limit);
+    }
+
+    // Задачи, идущие в момент instant; границы включительные, как в hasTimeOverlap.
+    // Задачи без конца пропускаются: обход останавливается только на задаче, закончившейся раньше.
+    public static List<Task> overlapping(NavigableSet<Task> schedule, LocalDateTime instant) {
+        if (instant == null) {
+            throw new IllegalArgumentException("Момент времени должен быть задан");
+        }
+        List<Task> result = new ArrayList<>();
+        Iterator<Task> iterator = schedule.headSet(probe(instant, Integer.MAX_VALUE), true).descendingIterator();
+        while (iterator.hasNext()) {
+            Task task = iterator.next();
+            LocalDateTime end = task.getEndTime();
+            if (end == null) {
+                continue;
+            }
+            if (end.isBefore(instant)) {
+                break;
+            }
+            result.add(task.copy());
+        }
+        Collections.reverse(result);
+        return Collections.unmodifiableList(result);
+    }
+
+    private static List<Task> copyOf(Iterable<Task> range, int limit) {
+        List<Task> result = new ArrayList<>();
+        Iterator<Task> iterator = range.iterator();
+        while (result.size() < limit && iterator.hasNext()) {
+            result.add(iterator.next().copy());
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    private static Task probe(LocalDateTime startTime, int id) {
+        Task probe = new Task("", "", Status.NEW, null, startTime);
+        probe.setId(id);
+        return probe;
+    }
+}
@@ -0,0 +1,200 @@
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// История, разделённая по сессиям: у каждой сессии своя история со своей блокировкой,
+// поэтому просмотры разных пользователей не конкурируют. Сессия задаётся для текущего потока
+// через enter(); вызовы вне сессии попадают в общую сессию DEFAULT_SESSION.
+// Сессии без обращений дольше idleTimeout вытесняются; если сессий больше maxPartitions,
+// вытесняются самые давние. Удаление задачи проходит по всем сессиям.
+public class SessionHistoryManager implements HistoryManager {
+    public static final String DEFAULT_SESSION = "";
+
+    private static class Partition {
+        final HistoryManager history;
+        volatile long lastAccess;
+
+        Partition(HistoryManager history, long now) {
+            this.history = history;
+            this.lastAccess = now;
+        }
+    }
+
+    public class Scope implements AutoCloseable {
+        private final String previous;
+
+        private Scope(String previous) {
+            this.previous = previous;
+        }
+
+        @Override
+        public void close() {
+            currentSession.set(previous);
+        }
+    }
+
+    private final Map<String, Partition> partitions = new ConcurrentHashMap<>();
+    private final ThreadLocal<String> currentSession = ThreadLocal.withInitial(() -> DEFAULT_SESSION);
+    private final Supplier<HistoryManager> factory;
+    private final long idleNanos;
+    private final int maxPartitions;
+    private final AtomicLong nextSweep;
+
+    public SessionHistoryManager(Supplier<HistoryManager> factory, Duration idleTimeout, int maxPartitions) {
+        if (idleTimeout.isNegative() || idleTimeout.isZero() || maxPartitions <= 0) {
+            throw new IllegalArgumentException("Время простоя и число сессий должны быть положительными");
+        }
+        this.factory = factory;
+        this.idleNanos = idleTimeout.toNanos();
+        this.maxPartitions = maxPartitions;
+        this.nextSweep = new AtomicLong(System.nanoTime() + idleNanos);
+    }
+
+    // Все обращения к истории в этом потоке до закрытия Scope относятся к сессии sessionId.
+    public Scope enter(String sessionId) {
+        String previous = currentSession.get();
+        currentSession.set(sessionId);
+        return new Scope(previous);
+    }
+
+    public int getPartitionCount() {
+        return partitions.size();
+    }
+
+    @Override
+    public void add(Task task) {
+        if (task == null) return;
+        long now = System.nanoTime();
+        Partition partition = partitions.get(currentSession.get());
+        if (partition == null) {
+            partition = createPartition(currentSession.get(), now);
+        }
+        synchronized (partition) {
+            partition.history.add(task);
+        }
+        partition.lastAccess = now;
+        maybeSweep(now);
+    }
+
+    @Override
+    public void remove(int id) {
+        for (Partition partition : partitions.values()) {
+            synchronized (partition) {
+                partition.history.remove(id);
+            }
+        }
+    }
+
+    @Override
+    public void removeAll(Collection<Integer> ids) {
+        for (Partition partition : partitions.values()) {
+            synchronized (partition) {
+                partition.history.removeAll(ids);
+            }
+        }
+    }
+
+    @Override
+    public List<Task> getHistory() {
+        Partition partition = touch();
+        if (partition == null) {
+            return new ArrayList<>();
+        }
+        synchronized (partition) {
+            return partition.history.getHistory();
+        }
+    }
+
+    @Override
+    public int size() {
+        Partition partition = touch();
+        if (partition == null) {
+            return 0;
+        }
+        synchronized (partition) {
+            return partition.history.size();
+        }
+    }
+
+    @Override
+    public List<Task> getPage(int offset, int limit) {
+        Partition partition = touch();
+        if (partition == null) {
+            return Collections.emptyList();
+        }
+        synchronized (partition) {
+            return partition.history.getPage(offset, limit);
+        }
+    }
+
+    @Override
+    public List<Task> getLast(int count) {
+        Partition partition = touch();
+        if (partition == null) {
+            return Collections.emptyList();
+        }
+        synchronized (partition) {
+            return partition.history.getLast(count);
+        }
+    }
+
+    // Возвращает число вытесненных сессий.
+    public int evictIdle() {
+        long now = System.nanoTime();
+        nextSweep.set(now + idleNanos);
+        int evicted = 0;
+        for (Map.Entry<String, Partition> entry : partitions.entrySet()) {
+            if (now - entry.getValue().lastAccess > idleNanos
+                    && partitions.remove(entry.getKey(), entry.getValue())) {
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    private Partition touch() {
+        Partition partition = partitions.get(currentSession.get());
+        if (partition != null) {
+            partition.lastAccess = System.nanoTime();
+        }
+        return partition;
+    }
+
+    private Partition createPartition(String sessionId, long now) {
+        Partition partition = partitions.computeIfAbsent(sessionId, id -> new Partition(factory.get(), now));
+        if (partitions.size() > maxPartitions) {
+            evictIdle();
+            while (partitions.size() > maxPartitions) {
+                if (!evictOldest(partition)) {
+                    break;
+                }
+            }
+        }
+        return partition;
+    }
+
+    private boolean evictOldest(Partition keep) {
+        Map.Entry<String, Partition> oldest = null;
+        for (Map.Entry<String, Partition> entry : partitions.entrySet()) {
+            if (entry.getValue() != keep
+                    && (oldest == null || entry.getValue().lastAccess - oldest.getValue().lastAccess < 0)) {
+                oldest = entry;
+            }
+        }
+        return oldest != null && partitions.remove(oldest.getKey(), oldest.getValue());
+    }
+
+    // Проверка простоя идёт не чаще раза за idleTimeout и выполняется одним потоком.
+    private void maybeSweep(long now) {
+        long due = nextSweep.get();
+        if (now - due >= 0 && nextSweep.compareAndSet(due, now + idleNanos)) {
+            evictIdle();
+        }
+    }
+}
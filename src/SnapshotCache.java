@@ -0,0 +1,57 @@
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// Неизменяемый список отсоединённых копий задач, который перестраивается только после изменения.
+// Снимок помечается версией, прочитанной до построения: изменение, завершившееся во время
+// построения, уже увеличило версию, и следующее чтение построит снимок заново.
+// Поэтому invalidate нужно вызывать после того, как изменение стало видно.
+public class SnapshotCache<T extends Task> {
+    private static class Snapshot<T> {
+        final long version;
+        final List<T> items;
+
+        Snapshot(long version, List<T> items) {
+            this.version = version;
+            this.items = items;
+        }
+    }
+
+    // LongAdder, чтобы писатели из разных потоков не конкурировали за один счётчик.
+    private final LongAdder version = new LongAdder();
+    private volatile Snapshot<T> snapshot;
+
+    public void invalidate() {
+        version.increment();
+    }
+
+    public long getVersion() {
+        return version.sum();
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<T> get(Collection<? extends T> source) {
+        return get(() -> {
+            List<T> copies = new ArrayList<>(source.size());
+            for (T item : source) {
+                copies.add((T) item.copy());
+            }
+            return copies;
+        });
+    }
+
+    // builder должен вернуть новый список копий.
+    public List<T> get(Supplier<List<T>> builder) {
+        long current = version.sum();
+        Snapshot<T> cached = snapshot;
+        if (cached != null && cached.version == current) {
+            return cached.items;
+        }
+        List<T> items = Collections.unmodifiableList(builder.get());
+        snapshot = new Snapshot<>(current, items);
+        return items;
+    }
+}
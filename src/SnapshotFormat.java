@@ -0,0 +1,23 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+public enum SnapshotFormat {
+    CSV,
+    BINARY;
+
+    // Формат определяется по содержимому, а не по расширению файла.
+    public static SnapshotFormat detect(File file) {
+        if (!file.exists() || file.length() < TaskBinaryCodec.MAGIC.length) {
+            return CSV;
+        }
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            byte[] magic = in.readNBytes(TaskBinaryCodec.MAGIC.length);
+            return Arrays.equals(magic, TaskBinaryCodec.MAGIC) ? BINARY : CSV;
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка чтения файла", e);
+        }
+    }
+}
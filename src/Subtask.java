@@ -23,6 +23,18 @@ public class Subtask extends Task {
         this.epicId = epicId;
     }
 
+    @Override
+    public TaskType getType() {
+        return TaskType.SUBTASK;
+    }
+
+    @Override
+    public Subtask copy() {
+        Subtask copy = new Subtask(getName(), getDescription(), getStatus(), epicId, getDuration(), getStartTime());
+        copy.setId(getId());
+        return copy;
+    }
+
     @Override
     public String toString() {
         return "Subtask{" +
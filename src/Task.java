@@ -55,6 +55,17 @@ public class Task {
         this.id = id;
     }
 
+    public TaskType getType() {
+        return TaskType.TASK;
+    }
+
+    // Отсоединённая копия для снимков чтения: её изменение не затрагивает менеджер.
+    public Task copy() {
+        Task copy = new Task(name, description, status, duration, startTime);
+        copy.setId(id);
+        return copy;
+    }
+
     public Status getStatus() {
         return status;
     }
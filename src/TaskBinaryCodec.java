@@ -0,0 +1,377 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.function.Consumer;
+
+// Бинарный снимок доски: магия "KNBN", байт версии, затем записи до байта-терминатора 0.
+// Запись: тип, флаги, varint id, ordinal статуса, имя и описание (varint длина + UTF-8),
+// для подзадачи varint id эпика, затем необязательные длительность в минутах
+// и начало в минутах от эпохи (zigzag varint) с остатком в наносекундах, если он не нулевой.
+// Версия 2 дополнительно хранит время эпика (начало, длительность, конец), чтобы
+// ленивая загрузка могла не пересчитывать эпики по подзадачам. Снимки версии 1 читаются как раньше.
+public class TaskBinaryCodec {
+    public static final byte[] MAGIC = {'K', 'N', 'B', 'N'};
+    public static final int VERSION = 2;
+
+    private static final byte END = 0;
+    private static final byte TASK = 1;
+    private static final byte EPIC = 2;
+    private static final byte SUBTASK = 3;
+
+    private static final int HAS_DURATION = 1;
+    private static final int HAS_START = 2;
+    private static final int HAS_NANOS = 4;
+    private static final int HAS_END = 8;
+    private static final int HAS_END_NANOS = 16;
+
+    private static final Status[] STATUSES = Status.values();
+
+    private final OutputStream out;
+    private byte[] buffer = new byte[64 * 1024];
+    private int position;
+
+    public TaskBinaryCodec(OutputStream out) {
+        this.out = out;
+    }
+
+    public void writeHeader() throws IOException {
+        for (byte b : MAGIC) {
+            writeByte(b);
+        }
+        writeByte(VERSION);
+    }
+
+    public void write(Task task) throws IOException {
+        LocalDateTime startTime = task.getStartTime();
+        LocalDateTime endTime = task instanceof Epic ? task.getEndTime() : null;
+        Duration duration = task.getDuration();
+        int flags = 0;
+        if (duration != null) {
+            flags |= HAS_DURATION;
+        }
+        if (startTime != null) {
+            flags |= HAS_START;
+            if (nanosOfMinute(startTime) != 0) {
+                flags |= HAS_NANOS;
+            }
+        }
+        if (endTime != null) {
+            flags |= HAS_END;
+            if (nanosOfMinute(endTime) != 0) {
+                flags |= HAS_END_NANOS;
+            }
+        }
+
+        if (task instanceof Subtask) {
+            writeByte(SUBTASK);
+        } else if (task instanceof Epic) {
+            writeByte(EPIC);
+        } else {
+            writeByte(TASK);
+        }
+        writeByte(flags);
+        writeVarLong(task.getId() & 0xFFFFFFFFL);
+        writeByte(task.getStatus().ordinal());
+        writeString(task.getName());
+        writeString(task.getDescription());
+        if (task instanceof Subtask subtask) {
+            writeVarLong(subtask.getEpicId() & 0xFFFFFFFFL);
+        }
+        if (duration != null) {
+            writeVarLong(zigzag(duration.toMinutes()));
+        }
+        if (startTime != null) {
+            writeTime(startTime);
+        }
+        if (endTime != null) {
+            writeTime(endTime);
+        }
+    }
+
+    // Копирует запись, уже закодированную в этом формате, без декодирования.
+    public void writeRaw(ByteBuffer record) throws IOException {
+        int length = record.remaining();
+        ensureCapacity(length);
+        record.get(buffer, position, length);
+        position += length;
+    }
+
+    private void writeTime(LocalDateTime time) throws IOException {
+        long epochSecond = time.toEpochSecond(ZoneOffset.UTC);
+        writeVarLong(zigzag(Math.floorDiv(epochSecond, 60)));
+        long nanos = nanosOfMinute(time);
+        if (nanos != 0) {
+            writeVarLong(nanos);
+        }
+    }
+
+    private static long nanosOfMinute(LocalDateTime time) {
+        return Math.floorMod(time.toEpochSecond(ZoneOffset.UTC), 60) * 1_000_000_000L + time.getNano();
+    }
+
+    public void finish() throws IOException {
+        writeByte(END);
+        out.write(buffer, 0, position);
+        position = 0;
+        out.flush();
+    }
+
+    private void writeString(String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(bytes.length);
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    private void writeVarLong(long value) throws IOException {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    private void writeByte(int value) throws IOException {
+        ensureCapacity(1);
+        buffer[position++] = (byte) value;
+    }
+
+    private void ensureCapacity(int bytes) throws IOException {
+        if (position + bytes <= buffer.length) {
+            return;
+        }
+        out.write(buffer, 0, position);
+        position = 0;
+        if (bytes > buffer.length) {
+            buffer = new byte[bytes];
+        }
+    }
+
+    // Читает снимок порциями; запись, не поместившаяся в буфер целиком, перечитывается после дозагрузки.
+    public static void readAll(ReadableByteChannel channel, Consumer<Task> consumer) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        channel.read(buffer);
+        buffer.flip();
+        readHeader(buffer);
+
+        while (true) {
+            buffer.mark();
+            Task task;
+            try {
+                task = decode(buffer);
+            } catch (BufferUnderflowException e) {
+                buffer.reset();
+                buffer = refill(channel, buffer);
+                continue;
+            }
+            if (task == null) {
+                return;
+            }
+            consumer.accept(task);
+        }
+    }
+
+    public static void readHeader(ByteBuffer buffer) {
+        if (buffer.remaining() < MAGIC.length + 1) {
+            throw new IllegalArgumentException("Файл не является бинарным снимком");
+        }
+        for (byte b : MAGIC) {
+            if (buffer.get() != b) {
+                throw new IllegalArgumentException("Файл не является бинарным снимком");
+            }
+        }
+        int version = buffer.get();
+        if (version < 1 || version > VERSION) {
+            throw new IllegalArgumentException("Неподдерживаемая версия снимка: " + version);
+        }
+    }
+
+    // Возвращает null на терминаторе. При нехватке байтов бросает BufferUnderflowException.
+    public static Task decode(ByteBuffer buffer) {
+        byte type = buffer.get();
+        if (type == END) {
+            return null;
+        }
+        int flags = buffer.get();
+        int id = (int) readVarLong(buffer);
+        Status status = STATUSES[buffer.get()];
+        String name = readString(buffer);
+        String description = readString(buffer);
+        int epicId = type == SUBTASK ? (int) readVarLong(buffer) : 0;
+
+        Duration duration = null;
+        if ((flags & HAS_DURATION) != 0) {
+            duration = Duration.ofMinutes(unzigzag(readVarLong(buffer)));
+        }
+        LocalDateTime startTime = null;
+        if ((flags & HAS_START) != 0) {
+            startTime = readTime(buffer, (flags & HAS_NANOS) != 0);
+        }
+        LocalDateTime endTime = null;
+        if ((flags & HAS_END) != 0) {
+            endTime = readTime(buffer, (flags & HAS_END_NANOS) != 0);
+        }
+
+        Task task;
+        switch (type) {
+            case TASK:
+                task = new Task(name, description, status, duration, startTime);
+                break;
+            case EPIC:
+                Epic epic = new Epic(name, description);
+                epic.setStatus(status);
+                epic.setDuration(duration);
+                epic.setStartTime(startTime);
+                epic.setEndTime(endTime);
+                task = epic;
+                break;
+            case SUBTASK:
+                task = new Subtask(name, description, status, epicId, duration, startTime);
+                break;
+            default:
+                throw new IllegalArgumentException("Неизвестный тип записи: " + type);
+        }
+        task.setId(id);
+        return task;
+    }
+
+    // Заголовок записи, прочитанный без декодирования строк и дат.
+    public static class RecordHeader {
+        int offset;
+        byte type;
+        int id;
+        int epicId;
+        boolean timed;
+
+        public int getOffset() {
+            return offset;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public int getEpicId() {
+            return epicId;
+        }
+
+        public boolean isEpic() {
+            return type == EPIC;
+        }
+
+        public boolean isSubtask() {
+            return type == SUBTASK;
+        }
+
+        public boolean isTimed() {
+            return timed;
+        }
+    }
+
+    // Пропускает запись, заполняя только заголовок. Возвращает false на терминаторе.
+    public static boolean scan(ByteBuffer buffer, RecordHeader header) {
+        header.offset = buffer.position();
+        byte type = buffer.get();
+        if (type == END) {
+            return false;
+        }
+        int flags = buffer.get();
+        header.type = type;
+        header.id = (int) readVarLong(buffer);
+        buffer.get();
+        skipString(buffer);
+        skipString(buffer);
+        header.epicId = type == SUBTASK ? (int) readVarLong(buffer) : 0;
+        header.timed = (flags & HAS_START) != 0;
+
+        if ((flags & HAS_DURATION) != 0) {
+            readVarLong(buffer);
+        }
+        if ((flags & HAS_START) != 0) {
+            readVarLong(buffer);
+            if ((flags & HAS_NANOS) != 0) {
+                readVarLong(buffer);
+            }
+        }
+        if ((flags & HAS_END) != 0) {
+            readVarLong(buffer);
+            if ((flags & HAS_END_NANOS) != 0) {
+                readVarLong(buffer);
+            }
+        }
+        return true;
+    }
+
+    private static LocalDateTime readTime(ByteBuffer buffer, boolean hasNanos) {
+        long epochMinute = unzigzag(readVarLong(buffer));
+        long nanosOfMinute = hasNanos ? readVarLong(buffer) : 0;
+        return LocalDateTime.ofEpochSecond(epochMinute * 60 + nanosOfMinute / 1_000_000_000L,
+                (int) (nanosOfMinute % 1_000_000_000L), ZoneOffset.UTC);
+    }
+
+    private static void skipString(ByteBuffer buffer) {
+        int length = (int) readVarLong(buffer);
+        buffer.position(buffer.position() + length);
+    }
+
+    private static ByteBuffer refill(ReadableByteChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.compact();
+        if (!buffer.hasRemaining()) {
+            ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() * 2);
+            buffer.flip();
+            larger.put(buffer);
+            buffer = larger;
+        }
+        int read = channel.read(buffer);
+        buffer.flip();
+        if (read == -1) {
+            throw new IllegalArgumentException("Бинарный снимок оборван");
+        }
+        return buffer;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = (int) readVarLong(buffer);
+        if (buffer.remaining() < length) {
+            throw new BufferUnderflowException();
+        }
+        String value;
+        if (buffer.hasArray()) {
+            value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+        } else {
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return value;
+    }
+
+    private static long readVarLong(ByteBuffer buffer) {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IllegalArgumentException("Некорректное число в бинарном снимке");
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,8 @@
+// Коллекции менеджера, у которых есть версия изменений (TaskManager.getVersion).
+public enum TaskCollection {
+    TASKS,
+    EPICS,
+    SUBTASKS,
+    PRIORITIZED,
+    HISTORY
+}
@@ -0,0 +1,250 @@
+import java.io.IOException;
+import java.io.Reader;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+// Потоковый разбор CSV-снимка: строки читаются в переиспользуемый буфер,
+// числа, статусы и даты разбираются прямо из символов без split и промежуточных строк.
+public class TaskCsvParser {
+    private static final int MAX_FIELDS = 9;
+
+    private final int[] fieldStarts = new int[MAX_FIELDS];
+    private final int[] fieldEnds = new int[MAX_FIELDS];
+    private final StringBuilder line = new StringBuilder(256);
+
+    // Первая строка считается заголовком и пропускается.
+    public void parseAll(Reader reader, Consumer<Task> consumer) throws IOException {
+        char[] buffer = new char[64 * 1024];
+        boolean header = true;
+        int read;
+        while ((read = reader.read(buffer)) != -1) {
+            for (int i = 0; i < read; i++) {
+                char ch = buffer[i];
+                if (ch == '\n') {
+                    header = acceptLine(header, consumer);
+                } else if (ch != '\r') {
+                    line.append(ch);
+                }
+            }
+        }
+        acceptLine(header, consumer);
+    }
+
+    // Пробелы по краям строки отбрасываются, как String.trim.
+    private boolean acceptLine(boolean header, Consumer<Task> consumer) {
+        trim(line);
+        if (!header && line.length() > 0) {
+            consumer.accept(parse(line));
+        }
+        line.setLength(0);
+        return false;
+    }
+
+    public Task parse(CharSequence value) {
+        int fieldCount = split(value);
+        if (fieldCount < 5) {
+            throw new IllegalArgumentException("Некорректная строка задачи: " + value);
+        }
+
+        int id = parseInt(value, 0);
+        String name = unescape(value, 2);
+        Status status = parseStatus(value, 3);
+        String description = unescape(value, 4);
+
+        Duration duration = null;
+        if (fieldCount > 6 && !isEmpty(6)) {
+            duration = Duration.ofMinutes(parseLong(value, 6));
+        }
+
+        LocalDateTime startTime = null;
+        if (fieldCount > 7 && !isEmpty(7)) {
+            startTime = parseDateTime(value, 7);
+        }
+
+        if (fieldEquals(value, 1, "TASK")) {
+            Task task = new Task(name, description, status, duration, startTime);
+            task.setId(id);
+            return task;
+        } else if (fieldEquals(value, 1, "EPIC")) {
+            Epic epic = new Epic(name, description);
+            epic.setId(id);
+            epic.setStatus(status);
+            if (duration != null) epic.setDuration(duration);
+            if (startTime != null) epic.setStartTime(startTime);
+            if (fieldCount > 8 && !isEmpty(8)) {
+                epic.setEndTime(parseDateTime(value, 8));
+            }
+            return epic;
+        } else if (fieldEquals(value, 1, "SUBTASK")) {
+            int epicId = parseInt(value, 5);
+            Subtask subtask = new Subtask(name, description, status, epicId, duration, startTime);
+            subtask.setId(id);
+            return subtask;
+        }
+        throw new IllegalArgumentException("Неизвестный тип задачи: " + field(value, 1));
+    }
+
+    // Запятая, экранированная обратным слешем, разделителем не считается.
+    private int split(CharSequence value) {
+        int count = 0;
+        int start = 0;
+        int length = value.length();
+        for (int i = 0; i < length && count < MAX_FIELDS - 1; i++) {
+            char ch = value.charAt(i);
+            if (ch == '\\' && i + 1 < length && value.charAt(i + 1) == ',') {
+                i++;
+            } else if (ch == ',') {
+                fieldStarts[count] = start;
+                fieldEnds[count] = i;
+                count++;
+                start = i + 1;
+            }
+        }
+        fieldStarts[count] = start;
+        fieldEnds[count] = length;
+        return count + 1;
+    }
+
+    private boolean isEmpty(int field) {
+        return fieldStarts[field] == fieldEnds[field];
+    }
+
+    private String field(CharSequence value, int field) {
+        return value.subSequence(fieldStarts[field], fieldEnds[field]).toString();
+    }
+
+    private String unescape(CharSequence value, int field) {
+        int start = fieldStarts[field];
+        int end = fieldEnds[field];
+        StringBuilder builder = new StringBuilder(end - start);
+        for (int i = start; i < end; i++) {
+            char ch = value.charAt(i);
+            if (ch == '\\' && i + 1 < end && value.charAt(i + 1) == ',') {
+                continue;
+            }
+            builder.append(ch);
+        }
+        return builder.toString();
+    }
+
+    private boolean fieldEquals(CharSequence value, int field, String expected) {
+        int start = fieldStarts[field];
+        if (fieldEnds[field] - start != expected.length()) {
+            return false;
+        }
+        for (int i = 0; i < expected.length(); i++) {
+            if (value.charAt(start + i) != expected.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Status parseStatus(CharSequence value, int field) {
+        for (Status status : Status.values()) {
+            if (fieldEquals(value, field, status.name())) {
+                return status;
+            }
+        }
+        throw new IllegalArgumentException("Неизвестный статус: " + field(value, field));
+    }
+
+    private int parseInt(CharSequence value, int field) {
+        long result = parseLong(value, field);
+        if (result < Integer.MIN_VALUE || result > Integer.MAX_VALUE) {
+            throw new NumberFormatException("Число вне диапазона: " + field(value, field));
+        }
+        return (int) result;
+    }
+
+    private long parseLong(CharSequence value, int field) {
+        int start = fieldStarts[field];
+        int end = fieldEnds[field];
+        boolean negative = start < end && value.charAt(start) == '-';
+        int i = negative ? start + 1 : start;
+        if (i == end) {
+            throw new NumberFormatException("Пустое число в поле " + field);
+        }
+        long result = 0;
+        for (; i < end; i++) {
+            int digit = value.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException("Некорректное число: " + field(value, field));
+            }
+            try {
+                result = Math.addExact(Math.multiplyExact(result, 10), digit);
+            } catch (ArithmeticException e) {
+                throw new NumberFormatException("Число вне диапазона: " + field(value, field));
+            }
+        }
+        return negative ? -result : result;
+    }
+
+    // Быстрый путь для yyyy-MM-ddTHH:mm[:ss[.fffffffff]], иначе стандартный ISO-парсер.
+    private LocalDateTime parseDateTime(CharSequence value, int field) {
+        int start = fieldStarts[field];
+        int length = fieldEnds[field] - start;
+        if (length < 16 || value.charAt(start + 4) != '-' || value.charAt(start + 7) != '-'
+                || value.charAt(start + 10) != 'T' || value.charAt(start + 13) != ':') {
+            return LocalDateTime.parse(field(value, field));
+        }
+
+        int year = digits(value, start, 4);
+        int month = digits(value, start + 5, 2);
+        int day = digits(value, start + 8, 2);
+        int hour = digits(value, start + 11, 2);
+        int minute = digits(value, start + 14, 2);
+        int second = 0;
+        int nanos = 0;
+
+        if (length > 16) {
+            if (length < 19 || value.charAt(start + 16) != ':') {
+                return LocalDateTime.parse(field(value, field));
+            }
+            second = digits(value, start + 17, 2);
+            if (length > 19) {
+                int fractionDigits = length - 20;
+                if (value.charAt(start + 19) != '.' || fractionDigits < 1 || fractionDigits > 9) {
+                    return LocalDateTime.parse(field(value, field));
+                }
+                nanos = digits(value, start + 20, fractionDigits);
+                for (int i = fractionDigits; i < 9; i++) {
+                    nanos *= 10;
+                }
+            }
+        }
+        if (year < 0 || month < 0 || day < 0 || hour < 0 || minute < 0 || second < 0 || nanos < 0) {
+            return LocalDateTime.parse(field(value, field));
+        }
+        return LocalDateTime.of(year, month, day, hour, minute, second, nanos);
+    }
+
+    // Возвращает -1, если встретился не цифровой символ.
+    private static int digits(CharSequence value, int start, int count) {
+        int result = 0;
+        for (int i = start; i < start + count; i++) {
+            int digit = value.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            result = result * 10 + digit;
+        }
+        return result;
+    }
+
+    private static void trim(StringBuilder value) {
+        int end = value.length();
+        while (end > 0 && value.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        value.setLength(end);
+        int start = 0;
+        while (start < end && value.charAt(start) <= ' ') {
+            start++;
+        }
+        if (start > 0) {
+            value.delete(0, start);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.util.List;
+
+// /tasks, /epics и /subtasks:
+// GET /{items} - все, GET /{items}/{id} - одна (попадает в историю), GET /epics/{id}/subtasks,
+// POST /{items} - создание (без id) или обновление (с id; 404, если такой нет), DELETE /{items}[/{id}].
+public class TaskItemsHandler extends BaseHttpHandler {
+    private final TaskType type;
+
+    public TaskItemsHandler(TaskManager taskManager, TaskType type, ResponseCache responses) {
+        super(taskManager, responses);
+        this.type = type;
+    }
+
+    @Override
+    protected void process(HttpExchange exchange, String method, String[] path) throws IOException {
+        if (path.length > 4 || (path.length == 4 && (type != TaskType.EPIC || !path[3].equals("subtasks")))) {
+            throw notFound("Неизвестный адрес");
+        }
+        switch (method) {
+            case "GET":
+                if (path.length == 2) {
+                    sendCollection(exchange, collection(), this::getAll);
+                } else if (path.length == 3) {
+                    sendJson(exchange, 200, codec().write(get(parseId(path[2]))));
+                } else {
+                    int epicId = parseId(path[2]);
+                    if (taskManager.getEpicById(epicId) == null) {
+                        throw notFound("Эпик с ID " + epicId + " не найден");
+                    }
+                    sendJson(exchange, 200, codec().writeArray(taskManager.getSubtasksByEpicId(epicId)));
+                }
+                break;
+            case "POST":
+                if (path.length != 2) {
+                    throw methodNotAllowed(method);
+                }
+                Task task;
+                TaskJsonCodec codec = codec();
+                try {
+                    task = codec.decode(readBody(exchange), type);
+                } catch (IllegalArgumentException e) {
+                    throw new HttpError(400, e.getMessage());
+                } finally {
+                    release(codec);
+                }
+                if (task.getId() != 0) {
+                    // Менеджер молча пропускает обновление неизвестного id, а обновление существующей
+                    // задачи всегда меняет версию коллекции; поиск через get* записал бы просмотр.
+                    long version = taskManager.getVersion(collection());
+                    update(task);
+                    if (taskManager.getVersion(collection()) == version) {
+                        throw notFound("Задача с ID " + task.getId() + " не найдена");
+                    }
+                    sendEmpty(exchange, 201);
+                } else {
+                    sendJson(exchange, 201, codec().write(create(task)));
+                }
+                break;
+            case "DELETE":
+                if (path.length == 2) {
+                    deleteAll();
+                } else if (path.length == 3) {
+                    delete(parseId(path[2]));
+                } else {
+                    throw methodNotAllowed(method);
+                }
+                sendEmpty(exchange, 200);
+                break;
+            default:
+                throw methodNotAllowed(method);
+        }
+    }
+
+    private TaskCollection collection() {
+        return switch (type) {
+            case TASK -> TaskCollection.TASKS;
+            case EPIC -> TaskCollection.EPICS;
+            case SUBTASK -> TaskCollection.SUBTASKS;
+        };
+    }
+
+    private List<? extends Task> getAll() {
+        return switch (type) {
+            case TASK -> taskManager.getAllTasks();
+            case EPIC -> taskManager.getAllEpics();
+            case SUBTASK -> taskManager.getAllSubtasks();
+        };
+    }
+
+    private Task get(int id) {
+        Task task = switch (type) {
+            case TASK -> taskManager.getTaskById(id);
+            case EPIC -> taskManager.getEpicById(id);
+            case SUBTASK -> taskManager.getSubtaskById(id);
+        };
+        if (task == null) {
+            throw notFound("Задача с ID " + id + " не найдена");
+        }
+        return task;
+    }
+
+    private Task create(Task task) {
+        return switch (type) {
+            case TASK -> taskManager.createTask(task);
+            case EPIC -> taskManager.createEpic((Epic) task);
+            case SUBTASK -> taskManager.createSubtask((Subtask) task);
+        };
+    }
+
+    private void update(Task task) {
+        switch (type) {
+            case TASK -> taskManager.updateTask(task);
+            case EPIC -> taskManager.updateEpic((Epic) task);
+            case SUBTASK -> taskManager.updateSubtask((Subtask) task);
+        }
+    }
+
+    private void delete(int id) {
+        switch (type) {
+            case TASK -> taskManager.deleteTaskById(id);
+            case EPIC -> taskManager.deleteEpicById(id);
+            case SUBTASK -> taskManager.deleteSubtaskById(id);
+        }
+    }
+
+    private void deleteAll() {
+        switch (type) {
+            case TASK -> taskManager.deleteAllTasks();
+            case EPIC -> taskManager.deleteAllEpics();
+            case SUBTASK -> taskManager.deleteAllSubtasks();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Журнал изменений: одна строка на мутацию, дописывается в конец файла.
+// Стоимость записи не зависит от количества задач на доске.
+public class TaskJournal {
+    private final File file;
+    protected int recordCount;
+    // Конец последней целой записи, прочитанной replay; внутри replay - начало текущей.
+    private long replayedLength;
+
+    public TaskJournal(File file) {
+        this.file = file;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public int getRecordCount() {
+        return recordCount;
+    }
+
+    public long getReplayedLength() {
+        return replayedLength;
+    }
+
+    public void append(String record) {
+        try {
+            Files.writeString(file.toPath(), record + "\n", StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            recordCount++;
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка записи в журнал", e);
+        }
+    }
+
+    // Несколько записей дописываются одной операцией записи.
+    public void appendAll(List<String> records) {
+        StringBuilder builder = new StringBuilder();
+        for (String record : records) {
+            builder.append(record).append('\n');
+        }
+        try {
+            Files.writeString(file.toPath(), builder, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            recordCount += records.size();
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка записи в журнал", e);
+        }
+    }
+
+    // Последняя строка без перевода строки считается оборванной при сбое: она пропускается
+    // и отрезается от файла, иначе следующая запись склеилась бы с ней в одну строку.
+    public void replay(Consumer<String> consumer) {
+        if (!file.exists()) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            InputStream in = new BufferedInputStream(Channels.newInputStream(channel));
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            long position = 0;
+            long complete = 0;
+            int b;
+            while ((b = in.read()) != -1) {
+                position++;
+                if (b == '\n') {
+                    if (line.size() > 0) {
+                        consumer.accept(line.toString(StandardCharsets.UTF_8));
+                        recordCount++;
+                    }
+                    line.reset();
+                    complete = position;
+                    replayedLength = complete;
+                } else if (b != '\r') {
+                    line.write(b);
+                }
+            }
+            if (complete < position) {
+                channel.truncate(complete);
+            }
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка чтения журнала", e);
+        }
+    }
+
+    // Каждая запись сразу попадает в файл; flush добавляет к ним fsync.
+    public void flush() {
+        if (!file.exists()) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+            channel.force(false);
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка фиксации журнала", e);
+        }
+    }
+
+    public void awaitDurable() {
+    }
+
+    public void close() {
+    }
+
+    // Отрезает записи начиная со смещения length, полученного из getReplayedLength;
+    // recordCount - сколько записей остаётся перед ним.
+    public void truncate(long length, int recordCount) {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+            channel.truncate(length);
+            replayedLength = length;
+            this.recordCount = recordCount;
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка очистки журнала", e);
+        }
+    }
+
+    public void truncate() {
+        try {
+            Files.deleteIfExists(file.toPath());
+            recordCount = 0;
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка очистки журнала", e);
+        }
+    }
+}
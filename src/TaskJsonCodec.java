@@ -0,0 +1,652 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Collection;
+
+// JSON задач без рефлексии и промежуточного дерева. Кодирование пишет UTF-8 прямо в свой буфер,
+// который переиспользуется между ответами (reset); числа и время записываются по цифрам.
+// Разбор идёт по байтам тела запроса: имена полей сравниваются с заготовленными байтами,
+// числа и время читаются без промежуточных строк, так что на задачу создаются только она сама,
+// её строки и время. Экземпляр не потокобезопасен.
+//
+// Формат: длительность - в минутах, время - как LocalDateTime.toString. Эпик дополнительно отдаёт
+// endTime и subtaskIds; при разборе вычисляемые поля (type, endTime, subtaskIds) и неизвестные
+// поля пропускаются, а тип задачи задаёт вызывающий.
+public class TaskJsonCodec {
+    private static final byte[] ID = ascii("id");
+    private static final byte[] NAME = ascii("name");
+    private static final byte[] DESCRIPTION = ascii("description");
+    private static final byte[] STATUS = ascii("status");
+    private static final byte[] EPIC_ID = ascii("epicId");
+    private static final byte[] DURATION = ascii("duration");
+    private static final byte[] START_TIME = ascii("startTime");
+    private static final byte[] ID_FIELD = ascii("{\"id\":");
+    private static final byte[] TYPE_FIELD = ascii(",\"type\":");
+    private static final byte[] NAME_FIELD = ascii(",\"name\":");
+    private static final byte[] DESCRIPTION_FIELD = ascii(",\"description\":");
+    private static final byte[] STATUS_FIELD = ascii(",\"status\":");
+    private static final byte[] EPIC_ID_FIELD = ascii(",\"epicId\":");
+    private static final byte[] DURATION_FIELD = ascii(",\"duration\":");
+    private static final byte[] START_TIME_FIELD = ascii(",\"startTime\":");
+    private static final byte[] END_TIME_FIELD = ascii(",\"endTime\":");
+    private static final byte[] SUBTASK_IDS_FIELD = ascii(",\"subtaskIds\":[");
+    private static final byte[] ERROR_FIELD = ascii("{\"error\":");
+    private static final byte[] NULL = ascii("null");
+    private static final byte[] TRUE = ascii("true");
+    private static final byte[] FALSE = ascii("false");
+    private static final byte[][] TYPE_NAMES = names(TaskType.values());
+    private static final byte[][] STATUS_NAMES = names(Status.values());
+    private static final Status[] STATUSES = Status.values();
+    private static final byte[] HEX = ascii("0123456789abcdef");
+
+    private byte[] buffer;
+    private int position;
+
+    private byte[] input;
+    private int offset;
+    private int limit;
+
+    public TaskJsonCodec() {
+        this(4096);
+    }
+
+    public TaskJsonCodec(int initialCapacity) {
+        buffer = new byte[Math.max(64, initialCapacity)];
+    }
+
+    public TaskJsonCodec reset() {
+        position = 0;
+        return this;
+    }
+
+    public int size() {
+        return position;
+    }
+
+    public int capacity() {
+        return buffer.length;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, position);
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(buffer, 0, position);
+    }
+
+    public TaskJsonCodec writeArray(Collection<? extends Task> tasks) {
+        writeByte('[');
+        boolean first = true;
+        for (Task task : tasks) {
+            if (!first) {
+                writeByte(',');
+            }
+            write(task);
+            first = false;
+        }
+        writeByte(']');
+        return this;
+    }
+
+    public TaskJsonCodec write(Task task) {
+        writeBytes(ID_FIELD);
+        writeLong(task.getId());
+        writeBytes(TYPE_FIELD);
+        writeQuoted(TYPE_NAMES[task.getType().ordinal()]);
+        writeBytes(NAME_FIELD);
+        writeString(task.getName());
+        writeBytes(DESCRIPTION_FIELD);
+        writeString(task.getDescription());
+        writeBytes(STATUS_FIELD);
+        writeQuoted(STATUS_NAMES[task.getStatus().ordinal()]);
+        if (task instanceof Subtask subtask) {
+            writeBytes(EPIC_ID_FIELD);
+            writeLong(subtask.getEpicId());
+        }
+        writeBytes(DURATION_FIELD);
+        Duration duration = task.getDuration();
+        if (duration == null) {
+            writeBytes(NULL);
+        } else {
+            writeLong(duration.toMinutes());
+        }
+        writeBytes(START_TIME_FIELD);
+        writeTime(task.getStartTime());
+        if (task instanceof Epic epic) {
+            writeBytes(END_TIME_FIELD);
+            writeTime(epic.getEndTime());
+            writeBytes(SUBTASK_IDS_FIELD);
+            int start = position;
+            epic.forEachSubtaskId(id -> {
+                if (position > start) {
+                    writeByte(',');
+                }
+                writeLong(id);
+            });
+            writeByte(']');
+        }
+        writeByte('}');
+        return this;
+    }
+
+    // {"error":"..."} - тело ответа об ошибке.
+    public TaskJsonCodec writeError(String message) {
+        writeBytes(ERROR_FIELD);
+        writeString(message == null ? "" : message);
+        writeByte('}');
+        return this;
+    }
+
+    public Task decode(byte[] json, TaskType type) {
+        return decode(json, 0, json.length, type);
+    }
+
+    public Task decode(byte[] json, int from, int to, TaskType type) {
+        input = json;
+        offset = from;
+        limit = to;
+        try {
+            return decodeTask(type);
+        } finally {
+            input = null;
+        }
+    }
+
+    private Task decodeTask(TaskType type) {
+        int id = 0;
+        String name = null;
+        String description = "";
+        Status status = Status.NEW;
+        int epicId = 0;
+        boolean hasEpicId = false;
+        Duration duration = null;
+        LocalDateTime startTime = null;
+
+        expect('{');
+        if (peek() == '}') {
+            offset++;
+        } else {
+            do {
+                expect('"');
+                int keyStart = offset;
+                int keyEnd = skipStringBody();
+                expect(':');
+                int keyLength = keyEnd - keyStart;
+                if (isNull()) {
+                    offset += NULL.length;
+                } else if (key(ID, keyStart, keyLength)) {
+                    id = readInt();
+                } else if (key(NAME, keyStart, keyLength)) {
+                    name = readString();
+                } else if (key(DESCRIPTION, keyStart, keyLength)) {
+                    description = readString();
+                } else if (key(STATUS, keyStart, keyLength)) {
+                    status = readStatus();
+                } else if (key(EPIC_ID, keyStart, keyLength)) {
+                    epicId = readInt();
+                    hasEpicId = true;
+                } else if (key(DURATION, keyStart, keyLength)) {
+                    duration = Duration.ofMinutes(readLong());
+                } else if (key(START_TIME, keyStart, keyLength)) {
+                    startTime = readTime();
+                } else {
+                    skipValue();
+                }
+            } while (nextOf(',', '}') == ',');
+        }
+        if (peek() != 0) {
+            throw error();
+        }
+
+        if (name == null) {
+            throw new IllegalArgumentException("Не задано имя задачи");
+        }
+        Task task;
+        switch (type) {
+            case EPIC:
+                task = new Epic(name, description);
+                break;
+            case SUBTASK:
+                if (!hasEpicId) {
+                    throw new IllegalArgumentException("Не задан эпик подзадачи");
+                }
+                task = new Subtask(name, description, status, epicId, duration, startTime);
+                break;
+            default:
+                task = new Task(name, description, status, duration, startTime);
+                break;
+        }
+        task.setId(id);
+        return task;
+    }
+
+    // ---- запись ----
+
+    private void writeBytes(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    private void writeQuoted(byte[] bytes) {
+        ensureCapacity(bytes.length + 2);
+        buffer[position++] = '"';
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+        buffer[position++] = '"';
+    }
+
+    private void writeByte(int value) {
+        ensureCapacity(1);
+        buffer[position++] = (byte) value;
+    }
+
+    private void writeLong(long value) {
+        ensureCapacity(20);
+        if (value < 0) {
+            if (value == Long.MIN_VALUE) {
+                writeBytes(ascii(Long.toString(value)));
+                return;
+            }
+            buffer[position++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (long rest = value / 10; rest != 0; rest /= 10) {
+            digits++;
+        }
+        int end = position + digits;
+        for (int i = end - 1; i >= position; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        position = end;
+    }
+
+    private void writeDigits(int value, int digits) {
+        for (int i = position + digits - 1; i >= position; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        position += digits;
+    }
+
+    // Тот же вид, что у LocalDateTime.toString: секунды и доли секунды - только если они не нулевые.
+    private void writeTime(LocalDateTime time) {
+        if (time == null) {
+            writeBytes(NULL);
+            return;
+        }
+        int year = time.getYear();
+        if (year < 0 || year > 9999) {
+            writeByte('"');
+            writeBytes(ascii(time.toString()));
+            writeByte('"');
+            return;
+        }
+        ensureCapacity(32);
+        buffer[position++] = '"';
+        writeDigits(year, 4);
+        buffer[position++] = '-';
+        writeDigits(time.getMonthValue(), 2);
+        buffer[position++] = '-';
+        writeDigits(time.getDayOfMonth(), 2);
+        buffer[position++] = 'T';
+        writeDigits(time.getHour(), 2);
+        buffer[position++] = ':';
+        writeDigits(time.getMinute(), 2);
+        int second = time.getSecond();
+        int nano = time.getNano();
+        if (second != 0 || nano != 0) {
+            buffer[position++] = ':';
+            writeDigits(second, 2);
+            if (nano != 0) {
+                buffer[position++] = '.';
+                if (nano % 1_000_000 == 0) {
+                    writeDigits(nano / 1_000_000, 3);
+                } else if (nano % 1000 == 0) {
+                    writeDigits(nano / 1000, 6);
+                } else {
+                    writeDigits(nano, 9);
+                }
+            }
+        }
+        buffer[position++] = '"';
+    }
+
+    private void writeString(String value) {
+        if (value == null) {
+            writeBytes(NULL);
+            return;
+        }
+        int length = value.length();
+        // В худшем случае \\uXXXX на символ.
+        ensureCapacity(length * 6 + 2);
+        buffer[position++] = '"';
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                if (c == '"' || c == '\\') {
+                    buffer[position++] = '\\';
+                    buffer[position++] = (byte) c;
+                } else if (c >= 0x20) {
+                    buffer[position++] = (byte) c;
+                } else if (c == '\n') {
+                    buffer[position++] = '\\';
+                    buffer[position++] = 'n';
+                } else if (c == '\r') {
+                    buffer[position++] = '\\';
+                    buffer[position++] = 'r';
+                } else if (c == '\t') {
+                    buffer[position++] = '\\';
+                    buffer[position++] = 't';
+                } else {
+                    buffer[position++] = '\\';
+                    buffer[position++] = 'u';
+                    buffer[position++] = '0';
+                    buffer[position++] = '0';
+                    buffer[position++] = HEX[c >> 4];
+                    buffer[position++] = HEX[c & 0xF];
+                }
+            } else if (c < 0x800) {
+                buffer[position++] = (byte) (0xC0 | (c >> 6));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer[position++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                buffer[position++] = '?';
+            } else {
+                buffer[position++] = (byte) (0xE0 | (c >> 12));
+                buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        buffer[position++] = '"';
+    }
+
+    private void ensureCapacity(int bytes) {
+        if (position + bytes > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + bytes));
+        }
+    }
+
+    // ---- разбор ----
+
+    private boolean key(byte[] expected, int start, int length) {
+        return Arrays.equals(input, start, start + length, expected, 0, expected.length);
+    }
+
+    private boolean isNull() {
+        peek();
+        return matches(NULL);
+    }
+
+    private boolean matches(byte[] literal) {
+        return limit - offset >= literal.length
+                && Arrays.equals(input, offset, offset + literal.length, literal, 0, literal.length);
+    }
+
+    private int readInt() {
+        long value = readLong();
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw error();
+        }
+        return (int) value;
+    }
+
+    private long readLong() {
+        peek();
+        boolean negative = offset < limit && input[offset] == '-';
+        if (negative) {
+            offset++;
+        }
+        int start = offset;
+        long value = 0;
+        while (offset < limit && input[offset] >= '0' && input[offset] <= '9') {
+            if (offset - start >= 18) {
+                throw error();
+            }
+            value = value * 10 + (input[offset++] - '0');
+        }
+        if (offset == start) {
+            throw error();
+        }
+        return negative ? -value : value;
+    }
+
+    private Status readStatus() {
+        expect('"');
+        int start = offset;
+        int end = skipStringBody();
+        for (int i = 0; i < STATUS_NAMES.length; i++) {
+            byte[] candidate = STATUS_NAMES[i];
+            if (Arrays.equals(input, start, end, candidate, 0, candidate.length)) {
+                return STATUSES[i];
+            }
+        }
+        throw new IllegalArgumentException("Неизвестный статус: "
+                + new String(input, start, end - start, StandardCharsets.UTF_8));
+    }
+
+    // Быстрый путь для yyyy-MM-ddTHH:mm[:ss[.n]]; остальные формы ISO разбирает LocalDateTime.parse.
+    private LocalDateTime readTime() {
+        expect('"');
+        int start = offset;
+        int end = skipStringBody();
+        int length = end - start;
+        if (length >= 16 && input[start + 4] == '-' && input[start + 7] == '-' && input[start + 10] == 'T'
+                && input[start + 13] == ':') {
+            int year = digits(start, 4);
+            int month = digits(start + 5, 2);
+            int day = digits(start + 8, 2);
+            int hour = digits(start + 11, 2);
+            int minute = digits(start + 14, 2);
+            int second = 0;
+            int nano = 0;
+            boolean valid = year >= 0 && month >= 0 && day >= 0 && hour >= 0 && minute >= 0;
+            if (valid && length > 16) {
+                valid = length >= 19 && input[start + 16] == ':';
+                second = valid ? digits(start + 17, 2) : -1;
+                if (valid && length > 19) {
+                    int fraction = length - 20;
+                    valid = input[start + 19] == '.' && fraction >= 1 && fraction <= 9;
+                    nano = valid ? digits(start + 20, fraction) : -1;
+                    for (int i = fraction; valid && i < 9; i++) {
+                        nano *= 10;
+                    }
+                }
+                valid = valid && second >= 0 && nano >= 0;
+            }
+            if (valid) {
+                try {
+                    return LocalDateTime.of(year, month, day, hour, minute, second, nano);
+                } catch (RuntimeException e) {
+                    throw new IllegalArgumentException("Некорректное время: "
+                            + new String(input, start, length, StandardCharsets.US_ASCII));
+                }
+            }
+        }
+        String text = new String(input, start, length, StandardCharsets.UTF_8);
+        try {
+            return LocalDateTime.parse(text);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Некорректное время: " + text);
+        }
+    }
+
+    // -1, если среди count байт есть не цифра.
+    private int digits(int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            int digit = input[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    // Строка без экранирования декодируется одним вызовом, с экранированием - через StringBuilder.
+    private String readString() {
+        expect('"');
+        int start = offset;
+        while (offset < limit) {
+            byte b = input[offset];
+            if (b == '"') {
+                String value = new String(input, start, offset - start, StandardCharsets.UTF_8);
+                offset++;
+                return value;
+            }
+            if (b == '\\') {
+                return readEscapedString(start);
+            }
+            offset++;
+        }
+        throw error();
+    }
+
+    private String readEscapedString(int start) {
+        StringBuilder value = new StringBuilder(offset - start + 16);
+        int segment = start;
+        while (offset < limit) {
+            byte b = input[offset];
+            if (b == '"') {
+                value.append(new String(input, segment, offset - segment, StandardCharsets.UTF_8));
+                offset++;
+                return value.toString();
+            }
+            if (b != '\\') {
+                offset++;
+                continue;
+            }
+            value.append(new String(input, segment, offset - segment, StandardCharsets.UTF_8));
+            if (offset + 1 >= limit) {
+                break;
+            }
+            byte escaped = input[offset + 1];
+            offset += 2;
+            switch (escaped) {
+                case 'n' -> value.append('\n');
+                case 'r' -> value.append('\r');
+                case 't' -> value.append('\t');
+                case 'b' -> value.append('\b');
+                case 'f' -> value.append('\f');
+                case 'u' -> {
+                    if (offset + 4 > limit) {
+                        throw error();
+                    }
+                    int code = 0;
+                    for (int i = 0; i < 4; i++) {
+                        int hex = Character.digit(input[offset++], 16);
+                        if (hex < 0) {
+                            throw error();
+                        }
+                        code = code * 16 + hex;
+                    }
+                    value.append((char) code);
+                }
+                case '"', '\\', '/' -> value.append((char) escaped);
+                default -> throw error();
+            }
+            segment = offset;
+        }
+        throw error();
+    }
+
+    // Пропускает тело строки после открывающей кавычки; возвращает позицию закрывающей.
+    private int skipStringBody() {
+        while (offset < limit) {
+            byte b = input[offset];
+            if (b == '"') {
+                return offset++;
+            }
+            offset += b == '\\' ? 2 : 1;
+        }
+        throw error();
+    }
+
+    private void skipValue() {
+        byte c = peek();
+        if (c == '"') {
+            offset++;
+            skipStringBody();
+        } else if (c == '{' || c == '[') {
+            int depth = 0;
+            while (offset < limit) {
+                byte b = input[offset++];
+                if (b == '"') {
+                    skipStringBody();
+                } else if (b == '{' || b == '[') {
+                    depth++;
+                } else if ((b == '}' || b == ']') && --depth == 0) {
+                    return;
+                }
+            }
+            throw error();
+        } else if (matches(TRUE)) {
+            offset += TRUE.length;
+        } else if (matches(FALSE)) {
+            offset += FALSE.length;
+        } else {
+            readLong();
+            // Дробная часть и экспонента для чисел, которые нам не нужны.
+            while (offset < limit && (input[offset] == '.' || input[offset] == 'e' || input[offset] == 'E'
+                    || input[offset] == '+' || input[offset] == '-'
+                    || (input[offset] >= '0' && input[offset] <= '9'))) {
+                offset++;
+            }
+        }
+    }
+
+    private void expect(char expected) {
+        if (peek() != expected) {
+            throw error();
+        }
+        offset++;
+    }
+
+    private byte nextOf(char first, char second) {
+        byte c = peek();
+        if (c != first && c != second) {
+            throw error();
+        }
+        offset++;
+        return c;
+    }
+
+    // Пропускает пробелы; 0 означает конец входа.
+    private byte peek() {
+        while (offset < limit && (input[offset] == ' ' || input[offset] == '\n'
+                || input[offset] == '\r' || input[offset] == '\t')) {
+            offset++;
+        }
+        return offset < limit ? input[offset] : 0;
+    }
+
+    private IllegalArgumentException error() {
+        return new IllegalArgumentException("Некорректный JSON в позиции " + offset);
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static byte[][] names(Enum<?>[] values) {
+        byte[][] names = new byte[values.length][];
+        for (int i = 0; i < values.length; i++) {
+            names[i] = ascii(values[i].name());
+        }
+        return names;
+    }
+}
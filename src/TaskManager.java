@@ -1,6 +1,12 @@
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface TaskManager {
+    // Версия коллекции, у которой нет общей для всех вызывающих версии.
+    long NO_VERSION = -1;
+
+    // Задача, эпик или подзадача с этим id; как и типизированные методы, попадает в историю.
+    Task getById(int id);
 
     List<Task> getAllTasks();
 
@@ -40,10 +46,44 @@ public interface TaskManager {
 
     List<Task> getHistory();
 
+    // Страница истории без копирования её целиком.
+    List<Task> getHistory(int offset, int limit);
+
     List<Subtask> getSubtasksByEpicId(int epicId);
 
+    // Списки getAll* и getPrioritizedTasks неизменяемы и состоят из копий: изменение
+    // полученной задачи не затрагивает менеджер, а повторное чтение без изменений не копирует.
     List<Task> getPrioritizedTasks();
 
+    // Окно расписания: задачи, начинающиеся в [from, to).
+    List<Task> getPrioritizedTasks(LocalDateTime from, LocalDateTime to);
+
+    // Следующие limit задач расписания после cursor (последней задачи прошлой страницы; null - с начала).
+    List<Task> getPrioritizedTasksAfter(Task cursor, int limit);
+
+    // Задачи, идущие в момент instant.
+    List<Task> getTasksAt(LocalDateTime instant);
+
+    // Все четыре списка одним снимком.
+    BoardSnapshot getSnapshot();
+
+    // Версия коллекции растёт при каждом изменении, сделанном через менеджер; пока она прежняя,
+    // повторное чтение вернёт то же самое, и ответ можно не собирать заново.
+    // Версия прочитана до коллекции - значит, коллекция не старше версии.
+    // При истории по сессиям (SessionHistoryManager) версия истории - NO_VERSION: общая версия
+    // не отличала бы историю одной сессии от истории другой.
+    long getVersion(TaskCollection collection);
+
+    // Размер коллекции без копирования и без записи в историю.
+    int getSize(TaskCollection collection);
+
+    // Применяет изменения по порядку и сохраняет результат один раз; если какое-то
+    // изменение не прошло проверку, изменения пакета откатываются и исключение пробрасывается,
+    // а сбои самого отката добавляются к нему как suppressed. Задачи, эпики, подзадачи и расписание
+    // возвращаются к прежнему состоянию; что реализация не откатывает (например, историю
+    // просмотров), описано в ней самой.
+    void applyBatch(List<Mutation> mutations);
+
     boolean hasTimeOverlap(Task task1, Task task2);
 
 }
\ No newline at end of file
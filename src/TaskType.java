@@ -0,0 +1,5 @@
+public enum TaskType {
+    TASK,
+    EPIC,
+    SUBTASK
+}
\ No newline at end of file
@@ -0,0 +1,76 @@
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+// Индекс занятых интервалов времени. Принятые менеджером задачи не пересекаются,
+// поэтому при сортировке по началу концы тоже отсортированы, и для проверки
+// достаточно ближайшего соседа слева от конца новой задачи.
+public class TimeSlotIndex {
+    private static class Slot {
+        final Task task;
+        final LocalDateTime start;
+        final LocalDateTime end;
+
+        Slot(Task task, LocalDateTime start, LocalDateTime end) {
+            this.task = task;
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    private final NavigableMap<LocalDateTime, Slot> slotsByStart = new TreeMap<>();
+    private final Map<Integer, Slot> slotsById = new HashMap<>();
+
+    public void add(Task task) {
+        LocalDateTime start = task.getStartTime();
+        LocalDateTime end = task.getEndTime();
+        if (start == null || end == null) {
+            return;
+        }
+        remove(task.getId());
+        Slot slot = new Slot(task, start, end);
+        slotsByStart.put(start, slot);
+        slotsById.put(task.getId(), slot);
+    }
+
+    public void remove(int id) {
+        Slot slot = slotsById.remove(id);
+        if (slot != null && slotsByStart.get(slot.start) == slot) {
+            slotsByStart.remove(slot.start);
+        }
+    }
+
+    public void clear() {
+        slotsByStart.clear();
+        slotsById.clear();
+    }
+
+    public int size() {
+        return slotsById.size();
+    }
+
+    // Границы включительные, как в TaskManager.hasTimeOverlap:
+    // интервалы пересекаются, если ни один не заканчивается раньше начала другого.
+    public boolean overlaps(Task task) {
+        LocalDateTime start = task.getStartTime();
+        LocalDateTime end = task.getEndTime();
+        if (start == null || end == null) {
+            return false;
+        }
+
+        Map.Entry<LocalDateTime, Slot> entry = slotsByStart.floorEntry(end);
+        while (entry != null) {
+            Slot slot = entry.getValue();
+            if (slot.end.isBefore(start)) {
+                return false;
+            }
+            if (slot.task != task) {
+                return true;
+            }
+            entry = slotsByStart.lowerEntry(entry.getKey());
+        }
+        return false;
+    }
+}
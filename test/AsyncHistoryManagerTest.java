@@ -0,0 +1,72 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncHistoryManagerTest {
+    private InMemoryHistoryManager delegate;
+    private AsyncHistoryManager historyManager;
+
+    @BeforeEach
+    void setUp() {
+        delegate = new InMemoryHistoryManager();
+        historyManager = AsyncHistoryManager.start(delegate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        historyManager.close();
+    }
+
+    private static Task task(int id) {
+        Task task = new Task("Task " + id, "Desc", Status.NEW);
+        task.setId(id);
+        return task;
+    }
+
+    @Test
+    void shouldApplyViewsInOrderOnFlush() {
+        for (int i = 1; i <= 1000; i++) {
+            historyManager.add(task(i % 10));
+        }
+        historyManager.flush();
+
+        assertEquals(List.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 0),
+                delegate.getHistory().stream().map(Task::getId).toList());
+    }
+
+    @Test
+    void shouldApplyViewsInBackground() throws InterruptedException {
+        historyManager.add(task(1));
+
+        for (int i = 0; i < 100 && delegate.size() == 0; i++) {
+            Thread.sleep(10);
+        }
+        historyManager.flush();
+        assertEquals(List.of(task(1)), delegate.getHistory());
+    }
+
+    @Test
+    void shouldNotResurrectRemovedTask() {
+        historyManager.add(task(1));
+        historyManager.add(task(2));
+        historyManager.remove(1);
+
+        assertEquals(List.of(task(2)), historyManager.getHistory());
+    }
+
+    @Test
+    void shouldRecordViewsThroughTaskManager() {
+        InMemoryTaskManager manager = new InMemoryTaskManager(historyManager);
+        Task first = manager.createTask(new Task("First", "Desc", Status.NEW));
+        Task second = manager.createTask(new Task("Second", "Desc", Status.NEW));
+
+        manager.getTaskById(second.getId());
+        manager.getTaskById(first.getId());
+
+        assertEquals(List.of(second, first), manager.getHistory());
+    }
+}
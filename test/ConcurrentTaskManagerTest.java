@@ -0,0 +1,132 @@
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentTaskManagerTest extends TaskManagerTest<ConcurrentTaskManager> {
+    @Override
+    protected ConcurrentTaskManager createTaskManager() {
+        return new ConcurrentTaskManager();
+    }
+
+    @Test
+    void shouldAssignUniqueIdsAndKeepEpicsConsistentUnderContention() throws Exception {
+        Epic epic = taskManager.createEpic(new Epic("Epic", "Description"));
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 0, 0);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int thread = 0; thread < 8; thread++) {
+            int offset = thread;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 200; i++) {
+                    long slot = (long) offset * 1000 + i;
+                    taskManager.createSubtask(new Subtask("Sub", "Desc", Status.DONE, epic.getId(),
+                            Duration.ofMinutes(10), start.plusHours(slot)));
+                    taskManager.getEpicById(epic.getId());
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(1600, taskManager.getAllSubtasks().size());
+        assertEquals(1600, taskManager.getPrioritizedTasks().size());
+        assertEquals(1600, taskManager.getSubtasksByEpicId(epic.getId()).size());
+        assertEquals(Status.DONE, epic.getStatus());
+        assertEquals(Duration.ofMinutes(16000), epic.getDuration());
+        assertEquals(List.of(epic), taskManager.getHistory());
+    }
+
+    @Test
+    void shouldRejectOverlapsRacingForTheSameSlot() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 0, 0);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Boolean>> futures = new ArrayList<>();
+
+        for (int i = 0; i < 8; i++) {
+            futures.add(executor.submit(() -> {
+                try {
+                    taskManager.createTask(new Task("Task", "Desc", Status.NEW, Duration.ofMinutes(30), start));
+                    return true;
+                } catch (IllegalArgumentException e) {
+                    return false;
+                }
+            }));
+        }
+        int created = 0;
+        for (Future<Boolean> future : futures) {
+            if (future.get()) {
+                created++;
+            }
+        }
+        executor.shutdown();
+
+        assertEquals(1, created);
+        assertEquals(1, taskManager.getPrioritizedTasks().size());
+    }
+
+    @Test
+    void shouldNotResurrectTaskDeletedDuringUpdate() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 0, 0);
+        int count = 20_000;
+        List<Task> created = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            created.add(taskManager.createTask(new Task("Task", "Desc", Status.NEW)));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CyclicBarrier round = new CyclicBarrier(2);
+        Future<?> updates = executor.submit(() -> {
+            for (int i = 0; i < count; i++) {
+                round.await();
+                Task timed = new Task("Timed", "Desc", Status.NEW, Duration.ofMinutes(30), start.plusHours(i));
+                timed.setId(created.get(i).getId());
+                taskManager.updateTask(timed);
+            }
+            return null;
+        });
+        Future<?> deletes = executor.submit(() -> {
+            for (Task task : created) {
+                round.await();
+                taskManager.deleteTaskById(task.getId());
+            }
+            return null;
+        });
+        updates.get();
+        deletes.get();
+        executor.shutdown();
+
+        assertTrue(taskManager.getAllTasks().isEmpty());
+        assertTrue(taskManager.getPrioritizedTasks().isEmpty());
+        for (int i = 0; i < count; i += 97) {
+            taskManager.createTask(new Task("Free", "Desc", Status.NEW, Duration.ofMinutes(30), start.plusHours(i)));
+        }
+    }
+
+    @Test
+    void shouldReturnDetachedEpicsFromReadsById() {
+        Epic epic = taskManager.createEpic(new Epic("Epic", "Description"));
+        Epic seen = taskManager.getEpicById(epic.getId());
+        Epic seenById = (Epic) taskManager.getById(epic.getId());
+
+        Subtask subtask = taskManager.createSubtask(new Subtask("Sub", "Desc", Status.DONE, epic.getId()));
+
+        assertNotSame(epic, seen);
+        assertEquals(Status.NEW, seen.getStatus());
+        assertTrue(seenById.getSubtaskIds().isEmpty());
+        assertEquals(Status.DONE, taskManager.getEpicById(epic.getId()).getStatus());
+        Epic inHistory = (Epic) taskManager.getHistory().get(0);
+        assertNotSame(epic, inHistory);
+        assertEquals(List.of(subtask.getId()), inHistory.getSubtaskIds());
+    }
+}
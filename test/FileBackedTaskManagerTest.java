@@ -2,6 +2,11 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
 import static org.junit.jupiter.api.Assertions.*;
 
 public class FileBackedTaskManagerTest extends TaskManagerTest<FileBackedTaskManager> {
@@ -22,6 +27,10 @@ public class FileBackedTaskManagerTest extends TaskManagerTest<FileBackedTaskMan
         if (tempFile != null && tempFile.exists()) {
             tempFile.delete();
         }
+        if (tempFile != null) {
+            FileBackedTaskManager.journalFileFor(tempFile).delete();
+            FileBackedTaskManager.historyFileFor(tempFile).delete();
+        }
     }
 
     @Test
@@ -52,4 +61,307 @@ public class FileBackedTaskManagerTest extends TaskManagerTest<FileBackedTaskMan
         assertTrue(loaded.getAllEpics().isEmpty());
         assertTrue(loaded.getAllSubtasks().isEmpty());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testJournalReplayRestoresState() {
+        FileBackedTaskManager manager = new FileBackedTaskManager(tempFile, 100);
+
+        Task task = manager.createTask(new Task("Test", "Description", Status.NEW));
+        Task removed = manager.createTask(new Task("Removed", "Description", Status.NEW));
+        Epic epic = manager.createEpic(new Epic("Epic", "Description"));
+        Subtask subtask = manager.createSubtask(new Subtask("Sub", "Description", Status.NEW, epic.getId()));
+
+        Subtask done = new Subtask("Sub", "Description", Status.DONE, epic.getId());
+        done.setId(subtask.getId());
+        manager.updateSubtask(done);
+        manager.deleteTaskById(removed.getId());
+
+        assertEquals(0, tempFile.length());
+        assertTrue(FileBackedTaskManager.journalFileFor(tempFile).exists());
+
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(tempFile, 100);
+
+        assertEquals(List.of(task), loaded.getAllTasks());
+        assertEquals(1, loaded.getAllSubtasks().size());
+        assertEquals(Status.DONE, loaded.getEpicById(epic.getId()).getStatus());
+        assertEquals(List.of(subtask.getId()), loaded.getEpicById(epic.getId()).getSubtaskIds());
+    }
+
+    @Test
+    public void testTornJournalTailIsCutBeforeNewWrites() throws IOException {
+        FileBackedTaskManager manager = new FileBackedTaskManager(tempFile, 100);
+        Task first = manager.createTask(new Task("First", "Description", Status.NEW));
+        File journalFile = FileBackedTaskManager.journalFileFor(tempFile);
+        Files.writeString(journalFile.toPath(), "PUT,7,TASK,Обор", StandardOpenOption.APPEND);
+
+        FileBackedTaskManager restarted = FileBackedTaskManager.loadFromFile(tempFile, 100);
+        assertEquals(List.of(first), restarted.getAllTasks());
+        Task second = restarted.createTask(new Task("Second", "Description", Status.NEW));
+
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(tempFile, 100);
+        assertEquals(List.of(first, second), loaded.getAllTasks());
+        assertEquals("Second", loaded.getTaskById(second.getId()).getName());
+    }
+
+    @Test
+    public void testJournalCompactsIntoSnapshot() {
+        FileBackedTaskManager manager = new FileBackedTaskManager(tempFile, 3);
+
+        manager.createTask(new Task("Task 1", "Description", Status.NEW));
+        manager.createTask(new Task("Task 2", "Description", Status.NEW));
+        manager.createTask(new Task("Task 3", "Description", Status.NEW));
+        manager.deleteAllTasks();
+        manager.createTask(new Task("Task 4", "Description", Status.NEW));
+
+        assertTrue(tempFile.length() > 0);
+
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(tempFile);
+
+        assertEquals(1, loaded.getAllTasks().size());
+        assertEquals("Task 4", loaded.getAllTasks().get(0).getName());
+        assertFalse(FileBackedTaskManager.journalFileFor(tempFile).exists());
+    }
+
+    @Test
+    public void testGroupCommitFlushMakesMutationsDurable() throws IOException {
+        File journalFile = FileBackedTaskManager.journalFileFor(tempFile);
+        GroupCommitJournal journal = GroupCommitJournal.open(journalFile, 1000, 60_000);
+        FileBackedTaskManager manager = new FileBackedTaskManager(tempFile, journal, 1000);
+
+        manager.createTask(new Task("Task 1", "Description", Status.NEW));
+        manager.createTask(new Task("Task 2", "Description", Status.NEW));
+        assertFalse(journalFile.exists());
+
+        manager.flush();
+        assertEquals(2, Files.readAllLines(journalFile.toPath()).size());
+        manager.close();
+        assertEquals(2, FileBackedTaskManager.loadFromFile(tempFile).getAllTasks().size());
+    }
+
+    @Test
+    public void testGroupCommitAwaitDurableWaitsForWindow() {
+        File journalFile = FileBackedTaskManager.journalFileFor(tempFile);
+        FileBackedTaskManager manager = new FileBackedTaskManager(tempFile,
+                GroupCommitJournal.open(journalFile, 1000, 10), 1000);
+
+        manager.createTask(new Task("Task 1", "Description", Status.NEW));
+        manager.awaitDurable();
+
+        assertTrue(journalFile.length() > 0);
+        manager.close();
+    }
+
+    @Test
+    public void testLoadKeepsEscapedCommasAndTimes() {
+        FileBackedTaskManager manager = createTaskManager();
+        LocalDateTime start = LocalDateTime.of(2025, 3, 1, 9, 30, 15, 123_400_000);
+        Task task = manager.createTask(new Task("Купить, молоко", "Описание, с запятой", Status.IN_PROGRESS,
+                Duration.ofMinutes(45), start));
+
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(tempFile);
+        Task restored = loaded.getTaskById(task.getId());
+
+        assertEquals("Купить, молоко", restored.getName());
+        assertEquals("Описание, с запятой", restored.getDescription());
+        assertEquals(Status.IN_PROGRESS, restored.getStatus());
+        assertEquals(Duration.ofMinutes(45), restored.getDuration());
+        assertEquals(start, restored.getStartTime());
+    }
+
+    @Test
+    public void testLoadAcceptsCrLfAndTrailingSpacesButRejectsOverflow() throws IOException {
+        Files.writeString(tempFile.toPath(), "id,type,name,status,description,epic,duration,startTime,endTime\r\n"
+                + "1,TASK,Task,NEW,Description,,30,2025-03-01T09:00  \r\n"
+                + "  2,EPIC,Epic,NEW,Description,,,,\r\n"
+                + "\r\n");
+
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(tempFile);
+        assertEquals(LocalDateTime.of(2025, 3, 1, 9, 0), loaded.getTaskById(1).getStartTime());
+        assertEquals("Epic", loaded.getEpicById(2).getName());
+
+        Files.writeString(tempFile.toPath(), "id,type,name,status,description,epic,duration,startTime,endTime\n"
+                + "1,TASK,Task,NEW,Description,,92233720368547758070,\n");
+        assertThrows(NumberFormatException.class, () -> FileBackedTaskManager.loadFromFile(tempFile));
+    }
+
+    @Test
+    public void testBinarySnapshotRoundTripAndCsvExport() throws IOException {
+        FileBackedTaskManager manager = new FileBackedTaskManager(tempFile, SnapshotFormat.BINARY);
+        LocalDateTime start = LocalDateTime.of(2025, 3, 1, 9, 30, 15, 123_400_000);
+        Task task = manager.createTask(new Task("Купить, молоко", "Описание", Status.IN_PROGRESS,
+                Duration.ofMinutes(45), start));
+        Epic epic = manager.createEpic(new Epic("Epic", "Description"));
+        Subtask subtask = manager.createSubtask(new Subtask("Sub", "Description", Status.DONE, epic.getId(),
+                Duration.ofMinutes(30), LocalDateTime.of(2025, 3, 2, 10, 0)));
+
+        assertEquals(SnapshotFormat.BINARY, SnapshotFormat.detect(tempFile));
+
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(tempFile);
+        Task restored = loaded.getTaskById(task.getId());
+        assertEquals("Купить, молоко", restored.getName());
+        assertEquals(start, restored.getStartTime());
+        assertEquals(Duration.ofMinutes(45), restored.getDuration());
+        assertEquals(subtask.getEpicId(), loaded.getSubtaskById(subtask.getId()).getEpicId());
+        assertEquals(Status.DONE, loaded.getEpicById(epic.getId()).getStatus());
+        assertEquals(subtask.getStartTime(), loaded.getEpicById(epic.getId()).getStartTime());
+
+        File csv = File.createTempFile("export", ".csv");
+        try {
+            loaded.exportSnapshot(csv, SnapshotFormat.CSV);
+            assertEquals(SnapshotFormat.CSV, SnapshotFormat.detect(csv));
+            assertEquals(1, FileBackedTaskManager.loadFromFile(csv).getAllSubtasks().size());
+        } finally {
+            csv.delete();
+        }
+    }
+
+    @Test
+    public void testMappedLoadMaterializesTasksOnDemand() {
+        FileBackedTaskManager manager = new FileBackedTaskManager(tempFile, SnapshotFormat.BINARY);
+        Task untimed = manager.createTask(new Task("Untimed", "Description", Status.NEW));
+        Task timed = manager.createTask(new Task("Timed", "Description", Status.NEW,
+                Duration.ofMinutes(30), LocalDateTime.of(2025, 3, 1, 9, 0)));
+        Epic epic = manager.createEpic(new Epic("Epic", "Description"));
+        Subtask subtask = manager.createSubtask(new Subtask("Sub", "Description", Status.DONE, epic.getId()));
+
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadMapped(tempFile);
+
+        assertEquals(List.of(timed), loaded.getPrioritizedTasks());
+        assertEquals(Status.DONE, loaded.getEpicById(epic.getId()).getStatus());
+        assertEquals(List.of(subtask.getId()), loaded.getEpicById(epic.getId()).getSubtaskIds());
+        assertEquals(TaskType.SUBTASK, loaded.getById(subtask.getId()).getType());
+        assertEquals("Untimed", loaded.getTaskById(untimed.getId()).getName());
+        assertEquals("Sub", loaded.getSubtaskById(subtask.getId()).getName());
+        assertEquals(2, loaded.getAllTasks().size());
+
+        Task created = loaded.createTask(new Task("New", "Description", Status.NEW));
+        assertTrue(created.getId() > subtask.getId());
+        loaded.deleteTaskById(untimed.getId());
+        assertNull(loaded.getTaskById(untimed.getId()));
+        assertNull(loaded.getById(untimed.getId()));
+    }
+
+    @Test
+    public void testMappedWritesDoNotDecodeUntouchedTasks() {
+        FileBackedTaskManager manager = new FileBackedTaskManager(tempFile, SnapshotFormat.BINARY,
+                new TaskJournal(FileBackedTaskManager.journalFileFor(tempFile)), 100);
+        Epic epic = manager.createEpic(new Epic("Epic", "Description"));
+        for (int i = 0; i < 100; i++) {
+            manager.createTask(new Task("Task " + i, "Description", Status.NEW));
+            manager.createSubtask(new Subtask("Sub " + i, "Description", Status.DONE, epic.getId()));
+        }
+        manager.compact();
+        Task pending = manager.createTask(new Task("Pending", "Description", Status.NEW));
+
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadMapped(tempFile);
+        assertEquals(200, loaded.getUnresolvedCount());
+        Task created = loaded.createTask(new Task("New", "Description", Status.NEW));
+        loaded.deleteTaskById(pending.getId());
+        assertEquals(200, loaded.getUnresolvedCount());
+
+        FileBackedTaskManager reloaded = FileBackedTaskManager.loadFromFile(tempFile);
+        assertEquals(101, reloaded.getAllTasks().size());
+        assertEquals(100, reloaded.getAllSubtasks().size());
+        assertEquals("New", reloaded.getTaskById(created.getId()).getName());
+        assertNull(reloaded.getTaskById(pending.getId()));
+        assertEquals("Sub 99", reloaded.getAllSubtasks().get(99).getName());
+        assertEquals(Status.DONE, reloaded.getEpicById(epic.getId()).getStatus());
+    }
+
+    @Test
+    public void testBatchIsJournaledOnceAndTornBatchIsDropped() throws IOException {
+        FileBackedTaskManager manager = new FileBackedTaskManager(tempFile, 100);
+        Epic epic = manager.createEpic(new Epic("Epic", "Description"));
+
+        manager.applyBatch(List.of(
+                Mutation.create(new Task("Task", "Description", Status.NEW)),
+                Mutation.create(new Subtask("Sub", "Description", Status.DONE, epic.getId()))));
+
+        File journalFile = FileBackedTaskManager.journalFileFor(tempFile);
+        List<String> records = Files.readAllLines(journalFile.toPath());
+        assertEquals(4, records.size());
+        assertEquals("BAT,2", records.get(1));
+
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(tempFile, 100);
+        assertEquals(1, loaded.getAllTasks().size());
+        assertEquals(Status.DONE, loaded.getEpicById(epic.getId()).getStatus());
+
+        Files.write(journalFile.toPath(), records.subList(0, 3));
+        FileBackedTaskManager torn = FileBackedTaskManager.loadFromFile(tempFile, 100);
+        assertTrue(torn.getAllTasks().isEmpty());
+        assertTrue(torn.getAllSubtasks().isEmpty());
+        assertEquals(1, Files.readAllLines(journalFile.toPath()).size());
+
+        Task afterRestart = torn.createTask(new Task("After", "Description", Status.NEW));
+        torn.createTask(new Task("More", "Description", Status.NEW));
+        FileBackedTaskManager reloaded = FileBackedTaskManager.loadFromFile(tempFile, 100);
+        assertEquals(2, reloaded.getAllTasks().size());
+        assertEquals("After", reloaded.getTaskById(afterRestart.getId()).getName());
+        assertTrue(reloaded.getAllSubtasks().isEmpty());
+        assertEquals(Status.NEW, reloaded.getEpicById(epic.getId()).getStatus());
+    }
+
+    @Test
+    public void testHistoryIsRestoredAfterReload() {
+        FileBackedTaskManager manager = createTaskManager();
+        Task first = manager.createTask(new Task("First", "Description", Status.NEW));
+        Task removed = manager.createTask(new Task("Removed", "Description", Status.NEW));
+        Epic epic = manager.createEpic(new Epic("Epic", "Description"));
+
+        manager.getTaskById(first.getId());
+        manager.getTaskById(removed.getId());
+        manager.getEpicById(epic.getId());
+        manager.getTaskById(first.getId());
+        manager.close();
+        manager.deleteTaskById(removed.getId());
+
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(tempFile);
+
+        assertEquals(List.of(epic, first), loaded.getHistory());
+    }
+
+    @Test
+    public void testViewsAreWrittenWithNextJournalRecord() {
+        FileBackedTaskManager manager = new FileBackedTaskManager(tempFile, 100);
+        Task first = manager.createTask(new Task("First", "Description", Status.NEW));
+        manager.getTaskById(first.getId());
+        manager.createTask(new Task("Second", "Description", Status.NEW));
+
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(tempFile, 100);
+
+        assertEquals(List.of(first), loaded.getHistory());
+    }
+
+    @Test
+    public void testTornHistoryTailIsCutBeforeNewViews() throws IOException {
+        FileBackedTaskManager manager = createTaskManager();
+        Task first = manager.createTask(new Task("First", "Description", Status.NEW));
+        Task second = manager.createTask(new Task("Second", "Description", Status.NEW));
+        manager.getTaskById(first.getId());
+        manager.close();
+        File historyFile = FileBackedTaskManager.historyFileFor(tempFile);
+        Files.write(historyFile.toPath(), new byte[]{0, 0}, StandardOpenOption.APPEND);
+
+        FileBackedTaskManager restarted = FileBackedTaskManager.loadFromFile(tempFile);
+        assertEquals(List.of(first), restarted.getHistory());
+        assertEquals(Integer.BYTES, historyFile.length());
+        restarted.getTaskById(second.getId());
+        restarted.close();
+
+        assertEquals(List.of(first, second), FileBackedTaskManager.loadFromFile(tempFile).getHistory());
+    }
+
+    @Test
+    public void testHistoryJournalIsRewrittenWhenItGrows() {
+        FileBackedTaskManager manager = createTaskManager();
+        Task task = manager.createTask(new Task("Task", "Description", Status.NEW));
+
+        for (int i = 0; i < 5000; i++) {
+            manager.getTaskById(task.getId());
+        }
+        manager.flush();
+
+        assertTrue(FileBackedTaskManager.historyFileFor(tempFile).length() < 5000 * Integer.BYTES);
+        assertEquals(List.of(task), FileBackedTaskManager.loadFromFile(tempFile).getHistory());
+    }
+}
@@ -0,0 +1,174 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HttpTaskServerTest {
+    private TaskManager manager;
+    private HttpTaskServer server;
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        manager = new ConcurrentTaskManager();
+        server = new HttpTaskServer(manager, 0);
+        server.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop();
+    }
+
+    @Test
+    public void testCreateGetUpdateAndDeleteTask() throws Exception {
+        HttpResponse<String> created = post("/tasks", "{\"name\":\"Задача\",\"description\":\"Описание\","
+                + "\"status\":\"NEW\",\"duration\":30,\"startTime\":\"2024-01-01T10:00:00\"}");
+        assertEquals(201, created.statusCode());
+        Task task = manager.getAllTasks().get(0);
+        assertEquals("Задача", task.getName());
+        assertEquals(Duration.ofMinutes(30), task.getDuration());
+        assertTrue(created.body().contains("\"id\":" + task.getId()));
+
+        HttpResponse<String> fetched = get("/tasks/" + task.getId());
+        assertEquals(200, fetched.statusCode());
+        assertTrue(fetched.body().contains("\"startTime\":\"2024-01-01T10:00\""));
+
+        assertEquals(201, post("/tasks", "{\"id\":" + task.getId() + ",\"name\":\"Новое имя\","
+                + "\"description\":\"Описание\",\"status\":\"DONE\"}").statusCode());
+        assertEquals(Status.DONE, manager.getAllTasks().get(0).getStatus());
+
+        assertEquals(200, send(HttpRequest.newBuilder(uri("/tasks/" + task.getId())).DELETE()).statusCode());
+        assertTrue(manager.getAllTasks().isEmpty());
+        assertEquals(404, get("/tasks/" + task.getId()).statusCode());
+    }
+
+    @Test
+    public void testUpdateOfUnknownIdIs404() throws Exception {
+        Epic epic = manager.createEpic(new Epic("Эпик", "Описание"));
+
+        assertEquals(404, post("/tasks", "{\"id\":999,\"name\":\"A\",\"description\":\"\",\"status\":\"NEW\"}")
+                .statusCode());
+        assertEquals(404, post("/epics", "{\"id\":999,\"name\":\"A\",\"description\":\"\"}").statusCode());
+        assertEquals(404, post("/subtasks", "{\"id\":999,\"name\":\"A\",\"description\":\"\",\"status\":\"NEW\","
+                + "\"epicId\":" + epic.getId() + "}").statusCode());
+        assertEquals(201, post("/epics", "{\"id\":" + epic.getId() + ",\"name\":\"Эпик\",\"description\":\"Описание\"}")
+                .statusCode());
+        assertTrue(manager.getAllTasks().isEmpty());
+        assertTrue(manager.getAllSubtasks().isEmpty());
+    }
+
+    @Test
+    public void testSessionHistoryIsNotCached() throws Exception {
+        server.stop();
+        SessionHistoryManager history = Managers.getSessionHistory();
+        manager = new ConcurrentTaskManager(history);
+        server = new HttpTaskServer(manager, 0);
+        server.start();
+        Task task = manager.createTask(new Task("Задача", "Описание", Status.NEW));
+        try (SessionHistoryManager.Scope ignored = history.enter("other")) {
+            manager.getTaskById(task.getId());
+        }
+
+        HttpResponse<String> first = get("/history");
+        assertEquals(200, first.statusCode());
+        assertEquals("[]", first.body());
+        assertTrue(first.headers().firstValue("ETag").isEmpty());
+        manager.getTaskById(task.getId());
+        assertEquals(List.of(task), manager.getHistory());
+        assertTrue(get("/history").body().contains("\"id\":" + task.getId()));
+    }
+
+    @Test
+    public void testOverlapIsRejectedWith406AndBadJsonWith400() throws Exception {
+        String body = "{\"name\":\"A\",\"description\":\"\",\"duration\":60,\"startTime\":\"2024-01-01T10:00:00\"}";
+        assertEquals(201, post("/tasks", body).statusCode());
+        assertEquals(406, post("/tasks", body).statusCode());
+        assertEquals(400, post("/tasks", "{\"name\":").statusCode());
+        assertEquals(400, get("/tasks/abc").statusCode());
+        assertEquals(1, manager.getAllTasks().size());
+    }
+
+    @Test
+    public void testEpicSubtasksHistoryAndPrioritized() throws Exception {
+        Epic epic = manager.createEpic(new Epic("Эпик", "Описание"));
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 10, 0);
+        Subtask subtask = manager.createSubtask(new Subtask("Подзадача", "", Status.IN_PROGRESS, epic.getId(),
+                Duration.ofMinutes(15), start));
+        assertEquals(406, post("/subtasks", "{\"name\":\"Без эпика\",\"epicId\":999}").statusCode());
+
+        HttpResponse<String> subtasks = get("/epics/" + epic.getId() + "/subtasks");
+        assertEquals(200, subtasks.statusCode());
+        assertTrue(subtasks.body().contains("\"epicId\":" + epic.getId()));
+        assertEquals(404, get("/epics/999/subtasks").statusCode());
+
+        get("/subtasks/" + subtask.getId());
+        assertEquals(List.of(epic, subtask), manager.getHistory());
+        assertTrue(get("/history").body().startsWith("[{\"id\":" + epic.getId()));
+        assertTrue(get("/history?offset=1&limit=1").body().startsWith("[{\"id\":" + subtask.getId()));
+
+        assertTrue(get("/prioritized").body().contains("\"id\":" + subtask.getId()));
+        assertEquals("[]", get("/prioritized?from=2024-01-02T00:00&to=2024-01-03T00:00").body());
+        assertEquals(405, send(HttpRequest.newBuilder(uri("/history")).DELETE()).statusCode());
+    }
+
+    @Test
+    public void testMetricsAreServedOnlyForInstrumentedManager() throws Exception {
+        assertEquals(404, get("/metrics").statusCode());
+        server.stop();
+        server = new HttpTaskServer(Managers.getInstrumented(manager), 0);
+        server.start();
+
+        post("/tasks", "{\"name\":\"A\",\"description\":\"\"}");
+        HttpResponse<String> metrics = get("/metrics");
+        assertEquals(200, metrics.statusCode());
+        assertTrue(metrics.body().contains("taskmanager_calls_total{method=\"createTask\"} 1\n"));
+        assertTrue(metrics.body().contains("taskmanager_size{collection=\"tasks\"} 1\n"));
+    }
+
+    @Test
+    public void testListIsNotModifiedUntilCollectionChanges() throws Exception {
+        manager.createTask(new Task("Задача", "Описание", Status.NEW));
+        HttpResponse<String> first = get("/tasks");
+        String etag = first.headers().firstValue("ETag").orElseThrow();
+
+        HttpResponse<String> cached = send(HttpRequest.newBuilder(uri("/tasks")).header("If-None-Match", etag));
+        assertEquals(304, cached.statusCode());
+        assertEquals("", cached.body());
+
+        String prioritizedTag = get("/prioritized").headers().firstValue("ETag").orElseThrow();
+        assertNotEquals(etag, prioritizedTag);
+
+        manager.createTask(new Task("Вторая", "Описание", Status.NEW));
+        HttpResponse<String> changed = send(HttpRequest.newBuilder(uri("/tasks")).header("If-None-Match", etag));
+        assertEquals(200, changed.statusCode());
+        assertNotEquals(etag, changed.headers().firstValue("ETag").orElseThrow());
+        assertTrue(changed.body().contains("Вторая"));
+        assertEquals(304, send(HttpRequest.newBuilder(uri("/prioritized"))
+                .header("If-None-Match", prioritizedTag)).statusCode());
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        return send(HttpRequest.newBuilder(uri(path)).GET());
+    }
+
+    private HttpResponse<String> post(String path, String body) throws Exception {
+        return send(HttpRequest.newBuilder(uri(path)).POST(HttpRequest.BodyPublishers.ofString(body)));
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws Exception {
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + server.getPort() + path);
+    }
+}
@@ -370,4 +370,38 @@ class InMemoryHistoryManagerTest {
         assertEquals(2, history.get(2).getId());
         assertEquals(6, history.get(3).getId());
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldEvictOldestWhenCapacityExceeded() {
+        historyManager = new InMemoryHistoryManager(3);
+        for (int i = 1; i <= 5; i++) {
+            Task task = new Task("Task " + i, "Desc", Status.NEW);
+            task.setId(i);
+            historyManager.add(task);
+        }
+        Task again = new Task("Task 4", "Desc", Status.DONE);
+        again.setId(4);
+        historyManager.add(again);
+
+        List<Task> history = historyManager.getHistory();
+        assertEquals(3, history.size());
+        assertEquals(List.of(3, 5, 4), history.stream().map(Task::getId).toList());
+        assertEquals(Status.DONE, history.get(2).getStatus());
+    }
+
+    @Test
+    void shouldReturnPagesAndLastEntries() {
+        for (int i = 1; i <= 10; i++) {
+            Task task = new Task("Task " + i, "Desc", Status.NEW);
+            task.setId(i);
+            historyManager.add(task);
+        }
+
+        assertEquals(10, historyManager.size());
+        assertEquals(List.of(4, 5, 6), historyManager.getPage(3, 3).stream().map(Task::getId).toList());
+        assertEquals(List.of(9, 10), historyManager.getPage(8, 5).stream().map(Task::getId).toList());
+        assertTrue(historyManager.getPage(20, 5).isEmpty());
+        assertEquals(List.of(8, 9, 10), historyManager.getLast(3).stream().map(Task::getId).toList());
+        assertEquals(10, historyManager.getLast(50).size());
+    }
+}
@@ -30,4 +30,28 @@ class InMemoryTaskManagerTest extends TaskManagerTest<InMemoryTaskManager> {
 
         assertThrows(IllegalArgumentException.class, () -> taskManager.createSubtask(subtask));
     }
+
+    @Test
+    void shouldKeepRollingBackBatchWhenUndoStepFails() {
+        InMemoryTaskManager manager = new InMemoryTaskManager() {
+            @Override
+            protected void removePrioritized(Task task) {
+                if (task.getName().equals("Broken")) {
+                    throw new IllegalStateException("Сбой отката");
+                }
+                super.removePrioritized(task);
+            }
+        };
+        LocalDateTime now = LocalDateTime.now();
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> manager.applyBatch(List.of(
+                Mutation.create(new Task("Broken", "Desc", Status.NEW, Duration.ofMinutes(10), now)),
+                Mutation.create(new Task("Other", "Desc", Status.NEW, Duration.ofMinutes(10), now.plusHours(1))),
+                Mutation.create(new Task("Clash", "Desc", Status.NEW, Duration.ofMinutes(10), now.plusHours(1))))));
+
+        assertEquals(1, e.getSuppressed().length);
+        assertInstanceOf(IllegalStateException.class, e.getSuppressed()[0]);
+        assertTrue(manager.getAllTasks().isEmpty());
+        assertEquals(1, manager.createTask(new Task("Next", "Desc", Status.NEW)).getId());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,62 @@
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsTaskManagerTest extends TaskManagerTest<MetricsTaskManager> {
+    @Override
+    protected MetricsTaskManager createTaskManager() {
+        return Managers.getInstrumented(new InMemoryTaskManager());
+    }
+
+    @Test
+    void shouldCountCallsAndErrorsPerMethod() {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 10, 0);
+        Task task = taskManager.createTask(new Task("A", "A", Status.NEW, Duration.ofMinutes(60), start));
+        taskManager.getTaskById(task.getId());
+        taskManager.getTaskById(task.getId());
+        assertThrows(IllegalArgumentException.class, () -> taskManager.createTask(
+                new Task("B", "B", Status.NEW, Duration.ofMinutes(30), start.plusMinutes(15))));
+
+        MetricsSnapshot metrics = taskManager.getMetrics();
+        MetricsSnapshot.MethodStats create = metrics.getMethod("createTask");
+        assertEquals(2, create.getCalls());
+        assertEquals(1, create.getErrorCount());
+        assertEquals(1L, create.getErrors().get("IllegalArgumentException"));
+        assertEquals(2, create.getLatency().getCount());
+        assertEquals(2, metrics.getMethod("getTaskById").getCalls());
+        assertEquals(0, metrics.getMethod("deleteAllTasks").getCalls());
+
+        assertEquals(1, metrics.getSizes().get(TaskCollection.TASKS));
+        assertEquals(1, metrics.getSizes().get(TaskCollection.HISTORY));
+        String text = metrics.toText();
+        assertTrue(text.contains("taskmanager_calls_total{method=\"createTask\"} 2\n"));
+        assertTrue(text.contains(
+                "taskmanager_errors_total{method=\"createTask\",exception=\"IllegalArgumentException\"} 1\n"));
+        assertTrue(text.contains("taskmanager_size{collection=\"tasks\"} 1\n"));
+        assertTrue(text.contains("# TYPE taskmanager_latency_max_nanoseconds gauge\n"
+                + "taskmanager_latency_max_nanoseconds{method=\"getById\"} 0\n"));
+    }
+
+    @Test
+    void shouldEstimatePercentilesWithinBucketError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 100_000; value++) {
+            histogram.record(value * 1_000);
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(100_000, snapshot.getCount());
+        assertEquals(100_000_000, snapshot.getMax());
+        for (double percentile : new double[]{50, 90, 99, 99.9}) {
+            double exact = percentile * 1_000_000;
+            double estimate = snapshot.getValueAtPercentile(percentile);
+            assertTrue(estimate >= exact && estimate <= exact * (1 + 1.0 / 32),
+                    percentile + "-й перцентиль: " + estimate);
+        }
+        assertEquals(100_000_000, snapshot.getValueAtPercentile(100));
+        for (long value = 0; value < 64; value++) {
+            assertEquals(value, LatencyHistogram.upperBound(LatencyHistogram.index(value)));
+        }
+    }
+}
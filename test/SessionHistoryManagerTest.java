@@ -0,0 +1,99 @@
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionHistoryManagerTest {
+    private static Task task(int id) {
+        Task task = new Task("Task " + id, "Desc", Status.NEW);
+        task.setId(id);
+        return task;
+    }
+
+    @Test
+    void shouldKeepSeparateHistoryPerSession() {
+        SessionHistoryManager history = Managers.getSessionHistory();
+        InMemoryTaskManager manager = new InMemoryTaskManager(history);
+        Task first = manager.createTask(new Task("First", "Desc", Status.NEW));
+        Task second = manager.createTask(new Task("Second", "Desc", Status.NEW));
+
+        inSession(history, "alice", () -> {
+            manager.getTaskById(first.getId());
+        });
+        inSession(history, "bob", () -> {
+            manager.getTaskById(second.getId());
+            manager.getTaskById(first.getId());
+        });
+
+        inSession(history, "alice", () -> {
+            assertEquals(List.of(first), manager.getHistory());
+        });
+        inSession(history, "bob", () -> {
+            assertEquals(List.of(second, first), manager.getHistory());
+        });
+        assertTrue(manager.getHistory().isEmpty());
+
+        manager.deleteTaskById(first.getId());
+
+        inSession(history, "alice", () -> {
+            assertTrue(manager.getHistory().isEmpty());
+        });
+        inSession(history, "bob", () -> {
+            assertEquals(List.of(second), manager.getHistory());
+        });
+    }
+
+    @Test
+    void shouldEvictIdleSessions() throws InterruptedException {
+        SessionHistoryManager history = new SessionHistoryManager(InMemoryHistoryManager::new,
+                Duration.ofMillis(20), 100);
+        inSession(history, "idle", () -> {
+            history.add(task(1));
+        });
+
+        Thread.sleep(50);
+        inSession(history, "active", () -> {
+            history.add(task(2));
+        });
+
+        assertEquals(1, history.getPartitionCount());
+        inSession(history, "idle", () -> {
+            assertTrue(history.getHistory().isEmpty());
+        });
+
+        Thread.sleep(50);
+        assertEquals(1, history.evictIdle());
+        assertEquals(0, history.getPartitionCount());
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedSessionsOverLimit() {
+        SessionHistoryManager history = new SessionHistoryManager(InMemoryHistoryManager::new,
+                Duration.ofHours(1), 2);
+        for (String session : List.of("a", "b", "c")) {
+            inSession(history, session, () -> {
+                history.add(task(1));
+            });
+        }
+
+        assertEquals(2, history.getPartitionCount());
+        inSession(history, "a", () -> {
+            assertTrue(history.getHistory().isEmpty());
+        });
+        inSession(history, "c", () -> {
+            assertEquals(1, history.size());
+        });
+    }
+
+    // Scope закрывается явно: тело сессии его не использует.
+    private static void inSession(SessionHistoryManager history, String sessionId, Runnable body) {
+        SessionHistoryManager.Scope scope = history.enter(sessionId);
+        try {
+            body.run();
+        } finally {
+            scope.close();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+import org.junit.jupiter.api.Test;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskJsonCodecTest {
+    private final TaskJsonCodec codec = new TaskJsonCodec(64);
+
+    @Test
+    public void testTaskRoundTripKeepsAllFields() {
+        Task task = new Task("Имя \"в кавычках\"\n\\ 😀", "Описание\t\u0001", Status.IN_PROGRESS,
+                Duration.ofMinutes(90), LocalDateTime.of(2024, 3, 5, 7, 8, 9, 120_000_000));
+        task.setId(42);
+
+        Task decoded = codec.decode(codec.reset().write(task).toByteArray(), TaskType.TASK);
+
+        assertEquals(42, decoded.getId());
+        assertEquals(task.getName(), decoded.getName());
+        assertEquals(task.getDescription(), decoded.getDescription());
+        assertEquals(Status.IN_PROGRESS, decoded.getStatus());
+        assertEquals(Duration.ofMinutes(90), decoded.getDuration());
+        assertEquals(task.getStartTime(), decoded.getStartTime());
+    }
+
+    @Test
+    public void testWritesTimesLikeLocalDateTimeToString() {
+        for (LocalDateTime time : List.of(LocalDateTime.of(2024, 1, 1, 10, 0),
+                LocalDateTime.of(2024, 1, 1, 10, 0, 5), LocalDateTime.of(2024, 1, 1, 10, 0, 0, 1000),
+                LocalDateTime.of(2024, 1, 1, 10, 0, 0, 7), LocalDateTime.of(12024, 1, 1, 10, 0))) {
+            Task task = new Task("T", "", Status.NEW, Duration.ZERO, time);
+            String json = new String(codec.reset().write(task).toByteArray(), StandardCharsets.UTF_8);
+
+            assertTrue(json.contains("\"startTime\":\"" + time + "\""), json);
+            assertEquals(time, codec.decode(json.getBytes(StandardCharsets.UTF_8), TaskType.TASK).getStartTime());
+        }
+    }
+
+    @Test
+    public void testEpicAndSubtaskFields() {
+        Epic epic = new Epic("Эпик", "Описание");
+        epic.setId(1);
+        epic.addSubtaskId(2);
+        epic.addSubtaskId(3);
+        Subtask subtask = new Subtask("Подзадача", "", Status.DONE, 1);
+        subtask.setId(2);
+
+        String json = new String(codec.reset().writeArray(List.of(epic, subtask)).toByteArray(),
+                StandardCharsets.UTF_8);
+
+        assertTrue(json.startsWith("[{\"id\":1,\"type\":\"EPIC\""), json);
+        assertTrue(json.contains("\"subtaskIds\":[2,3]"), json);
+        assertTrue(json.contains("\"epicId\":1"), json);
+        Subtask decoded = (Subtask) codec.decode(codec.reset().write(subtask).toByteArray(), TaskType.SUBTASK);
+        assertEquals(1, decoded.getEpicId());
+        assertEquals(Status.DONE, decoded.getStatus());
+    }
+
+    @Test
+    public void testSkipsUnknownFieldsAndAppliesDefaults() {
+        byte[] json = ("{ \"extra\": {\"a\": [1, \"]\"]}, \"name\" : \"A\\u0042\", \"flag\": true,"
+                + " \"ratio\": -1.5e3, \"duration\": null, \"subtaskIds\": [] }").getBytes(StandardCharsets.UTF_8);
+
+        Task task = codec.decode(json, TaskType.EPIC);
+
+        assertInstanceOf(Epic.class, task);
+        assertEquals("AB", task.getName());
+        assertEquals("", task.getDescription());
+        assertEquals(0, task.getId());
+    }
+
+    @Test
+    public void testRejectsMalformedInput() {
+        for (String json : List.of("", "{", "{\"name\":\"A\"", "{\"name\":\"A\"}x", "{\"status\":\"OPEN\",\"name\":\"A\"}",
+                "{\"name\":\"A\",\"startTime\":\"2024-13-01T10:00\"}", "{\"name\":\"A\",\"id\":99999999999}",
+                "{\"description\":\"без имени\"}")) {
+            assertThrows(IllegalArgumentException.class,
+                    () -> codec.decode(json.getBytes(StandardCharsets.UTF_8), TaskType.TASK), json);
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> codec.decode("{\"name\":\"A\"}".getBytes(StandardCharsets.UTF_8), TaskType.SUBTASK));
+    }
+}
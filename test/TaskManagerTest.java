@@ -2,6 +2,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -40,6 +41,53 @@ public abstract class TaskManagerTest<T extends TaskManager> {
         });
     }
 
+    @Test
+    void shouldTreatTouchingBoundariesAsOverlap() {
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 10, 0);
+        taskManager.createTask(new Task("Task1", "Desc", Status.NEW,
+                Duration.ofMinutes(60), now));
+
+        assertThrows(IllegalArgumentException.class, () -> taskManager.createTask(
+                new Task("Task2", "Desc", Status.NEW, Duration.ofMinutes(30), now.plusMinutes(60))));
+        assertThrows(IllegalArgumentException.class, () -> taskManager.createTask(
+                new Task("Task3", "Desc", Status.NEW, Duration.ofMinutes(30), now.minusMinutes(30))));
+    }
+
+    @Test
+    void shouldDetectOverlapWithEnclosedAndEnclosingTasks() {
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 10, 0);
+        taskManager.createTask(new Task("Early", "Desc", Status.NEW,
+                Duration.ofMinutes(30), now));
+        taskManager.createTask(new Task("Middle", "Desc", Status.NEW,
+                Duration.ofMinutes(10), now.plusHours(2)));
+        taskManager.createTask(new Task("Late", "Desc", Status.NEW,
+                Duration.ofMinutes(30), now.plusHours(5)));
+
+        assertThrows(IllegalArgumentException.class, () -> taskManager.createTask(
+                new Task("Enclosing", "Desc", Status.NEW, Duration.ofHours(2), now.plusHours(1))));
+        assertThrows(IllegalArgumentException.class, () -> taskManager.createTask(
+                new Task("Enclosed", "Desc", Status.NEW, Duration.ofMinutes(1), now.plusMinutes(121))));
+        assertDoesNotThrow(() -> taskManager.createTask(
+                new Task("Gap", "Desc", Status.NEW, Duration.ofMinutes(30), now.plusHours(3))));
+    }
+
+    @Test
+    void shouldFreeTimeSlotAfterUpdateAndDelete() {
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 10, 0);
+        Task task = taskManager.createTask(new Task("Task", "Desc", Status.NEW,
+                Duration.ofMinutes(60), now));
+
+        Task moved = new Task("Task", "Desc", Status.NEW, Duration.ofMinutes(60), now.plusHours(3));
+        moved.setId(task.getId());
+        taskManager.updateTask(moved);
+        assertDoesNotThrow(() -> taskManager.createTask(
+                new Task("Reuse", "Desc", Status.NEW, Duration.ofMinutes(60), now)));
+
+        taskManager.deleteTaskById(moved.getId());
+        assertDoesNotThrow(() -> taskManager.createTask(
+                new Task("Reuse2", "Desc", Status.NEW, Duration.ofMinutes(60), now.plusHours(3))));
+    }
+
     @Test
     void shouldReturnPrioritizedTasks() {
         LocalDateTime time1 = LocalDateTime.now();
@@ -59,6 +107,29 @@ public abstract class TaskManagerTest<T extends TaskManager> {
         assertEquals("Task1", prioritized.get(1).getName());
     }
 
+    @Test
+    void shouldRemoveScheduledTaskEvenIfCallerChangedItsStartTime() {
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 16; i++) {
+            taskManager.createTask(new Task("Task" + i, "Desc", Status.NEW,
+                    Duration.ofMinutes(30), now.plusHours(i)));
+        }
+        Task moved = taskManager.createTask(new Task("Moved", "Desc", Status.NEW,
+                Duration.ofMinutes(30), now.plusDays(1)));
+        Epic epic = taskManager.createEpic(new Epic("Epic", "Desc"));
+        Subtask subtask = taskManager.createSubtask(new Subtask("Sub", "Desc", Status.NEW, epic.getId(),
+                Duration.ofMinutes(30), now.plusDays(2)));
+
+        moved.setStartTime(now.minusDays(1));
+        subtask.setStartTime(now.minusDays(2));
+        taskManager.deleteTaskById(moved.getId());
+        taskManager.deleteAllSubtasks();
+
+        List<Task> prioritized = taskManager.getPrioritizedTasks();
+        assertEquals(16, prioritized.size());
+        assertTrue(prioritized.stream().allMatch(task -> task.getName().startsWith("Task")));
+    }
+
     @Test
     void shouldCalculateEpicStatusAllNew() {
         Epic epic = taskManager.createEpic(new Epic("Epic", "Description"));
@@ -101,6 +172,58 @@ public abstract class TaskManagerTest<T extends TaskManager> {
         assertEquals(Status.IN_PROGRESS, epic.getStatus());
     }
 
+    @Test
+    void shouldKeepEpicAggregatesInSyncWithSubtaskChanges() {
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 10, 0);
+        Epic epic = taskManager.createEpic(new Epic("Epic", "Description"));
+        Subtask early = taskManager.createSubtask(new Subtask("Early", "Desc", Status.NEW, epic.getId(),
+                Duration.ofMinutes(30), start));
+        Subtask late = taskManager.createSubtask(new Subtask("Late", "Desc", Status.DONE, epic.getId(),
+                Duration.ofMinutes(60), start.plusHours(5)));
+        taskManager.createSubtask(new Subtask("Untimed", "Desc", Status.NEW, epic.getId(),
+                Duration.ofMinutes(15), null));
+
+        assertEquals(Status.IN_PROGRESS, epic.getStatus());
+        assertEquals(start, epic.getStartTime());
+        assertEquals(start.plusHours(6), epic.getEndTime());
+        assertEquals(Duration.ofMinutes(105), epic.getDuration());
+
+        early.setStatus(Status.DONE);
+        early.setStartTime(start.plusHours(2));
+        taskManager.updateSubtask(early);
+        assertEquals(start.plusHours(2), epic.getStartTime());
+
+        taskManager.deleteSubtaskById(late.getId());
+        assertEquals(start.plusHours(2).plusMinutes(30), epic.getEndTime());
+        assertEquals(Duration.ofMinutes(45), epic.getDuration());
+        assertEquals(Status.IN_PROGRESS, epic.getStatus());
+
+        taskManager.deleteAllSubtasks();
+        assertEquals(Status.NEW, epic.getStatus());
+        assertNull(epic.getStartTime());
+        assertEquals(Duration.ZERO, epic.getDuration());
+    }
+
+    @Test
+    void shouldKeepSubtaskOrderAfterRemovals() {
+        Epic epic = taskManager.createEpic(new Epic("Epic", "Description"));
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            Subtask subtask = taskManager.createSubtask(new Subtask("Sub" + i, "Desc", Status.NEW, epic.getId()));
+            if (i % 3 == 0) {
+                expected.add(subtask.getId());
+            }
+        }
+        for (Subtask subtask : taskManager.getSubtasksByEpicId(epic.getId())) {
+            if (!expected.contains(subtask.getId())) {
+                taskManager.deleteSubtaskById(subtask.getId());
+            }
+        }
+
+        assertEquals(expected, taskManager.getEpicById(epic.getId()).getSubtaskIds());
+        assertEquals(expected.size(), taskManager.getSubtasksByEpicId(epic.getId()).size());
+    }
+
     @Test
     void shouldHandleEmptyHistory() {
         assertTrue(taskManager.getHistory().isEmpty());
@@ -114,4 +237,238 @@ public abstract class TaskManagerTest<T extends TaskManager> {
 
         assertTrue(taskManager.getHistory().isEmpty());
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldKeepOtherTypesAfterBulkDelete() {
+        LocalDateTime now = LocalDateTime.now();
+        Task task = taskManager.createTask(new Task("Task", "Desc", Status.NEW,
+                Duration.ofMinutes(10), now));
+        Epic epic = taskManager.createEpic(new Epic("Epic", "Desc"));
+        Subtask subtask = taskManager.createSubtask(new Subtask("Sub", "Desc", Status.NEW,
+                epic.getId(), Duration.ofMinutes(10), now.plusMinutes(20)));
+        taskManager.getTaskById(task.getId());
+        taskManager.getSubtaskById(subtask.getId());
+        taskManager.getEpicById(epic.getId());
+
+        taskManager.deleteAllTasks();
+
+        assertEquals(List.of(subtask), taskManager.getPrioritizedTasks());
+        assertEquals(List.of(subtask, epic), taskManager.getHistory());
+
+        taskManager.deleteAllEpics();
+
+        assertTrue(taskManager.getPrioritizedTasks().isEmpty());
+        assertTrue(taskManager.getHistory().isEmpty());
+        assertDoesNotThrow(() -> taskManager.createTask(new Task("Task", "Desc", Status.NEW,
+                Duration.ofMinutes(10), now)));
+    }
+
+    @Test
+    void shouldApplyBatchOfMutations() {
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 9, 0);
+        Task existing = taskManager.createTask(new Task("Old", "Desc", Status.NEW));
+        Epic epic = taskManager.createEpic(new Epic("Epic", "Desc"));
+        Subtask first = new Subtask("Sub1", "Desc", Status.DONE, epic.getId(),
+                Duration.ofMinutes(30), now);
+        Subtask second = new Subtask("Sub2", "Desc", Status.DONE, epic.getId(),
+                Duration.ofMinutes(30), now.plusHours(1));
+        Task task = new Task("Task", "Desc", Status.NEW, Duration.ofMinutes(15), now.plusHours(2));
+
+        taskManager.applyBatch(List.of(
+                Mutation.create(first),
+                Mutation.create(second),
+                Mutation.create(task),
+                Mutation.delete(existing.getId())));
+
+        assertEquals(List.of(task), taskManager.getAllTasks());
+        assertEquals(List.of(first.getId(), second.getId()), taskManager.getEpicById(epic.getId()).getSubtaskIds());
+        assertEquals(Status.DONE, taskManager.getEpicById(epic.getId()).getStatus());
+        assertEquals(List.of(first, second, task), taskManager.getPrioritizedTasks());
+    }
+
+    @Test
+    void shouldRollBackWholeBatchWhenMutationFails() {
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 9, 0);
+        Task kept = taskManager.createTask(new Task("Kept", "Desc", Status.NEW, Duration.ofMinutes(30), now));
+        Epic epic = taskManager.createEpic(new Epic("Epic", "Desc"));
+        Subtask first = taskManager.createSubtask(new Subtask("Sub1", "Desc", Status.NEW, epic.getId()));
+        Subtask second = taskManager.createSubtask(new Subtask("Sub2", "Desc", Status.NEW, epic.getId()));
+        Subtask done = new Subtask("Sub1", "Desc", Status.DONE, epic.getId());
+        done.setId(first.getId());
+        Task renamed = new Task("Renamed", "Desc", Status.DONE, Duration.ofMinutes(30), now.plusHours(1));
+        renamed.setId(kept.getId());
+
+        assertThrows(IllegalArgumentException.class, () -> taskManager.applyBatch(List.of(
+                Mutation.create(new Task("New", "Desc", Status.NEW, Duration.ofMinutes(10), now.plusHours(3))),
+                Mutation.update(done),
+                Mutation.delete(second.getId()),
+                Mutation.update(renamed),
+                Mutation.create(new Task("Clash", "Desc", Status.NEW, Duration.ofMinutes(10), now.plusHours(1))))));
+
+        assertEquals(List.of(kept), taskManager.getAllTasks());
+        assertEquals("Kept", taskManager.getAllTasks().get(0).getName());
+        assertEquals(List.of(kept), taskManager.getPrioritizedTasks());
+        assertEquals(List.of(first.getId(), second.getId()), taskManager.getEpicById(epic.getId()).getSubtaskIds());
+        assertEquals(Status.NEW, taskManager.getEpicById(epic.getId()).getStatus());
+        assertEquals(2, taskManager.getAllSubtasks().size());
+    }
+
+    @Test
+    void shouldRestoreSubtaskOrderAndIdsOnRollback() {
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 9, 0);
+        Epic epic = taskManager.createEpic(new Epic("Epic", "Desc"));
+        Subtask first = taskManager.createSubtask(new Subtask("Sub1", "Desc", Status.NEW, epic.getId()));
+        Subtask second = taskManager.createSubtask(new Subtask("Sub2", "Desc", Status.DONE, epic.getId()));
+        Subtask third = taskManager.createSubtask(new Subtask("Sub3", "Desc", Status.NEW, epic.getId()));
+        Task before = taskManager.createTask(new Task("Before", "Desc", Status.NEW, Duration.ofMinutes(30), now));
+
+        assertThrows(IllegalArgumentException.class, () -> taskManager.applyBatch(List.of(
+                Mutation.create(new Task("New", "Desc", Status.NEW)),
+                Mutation.delete(first.getId()),
+                Mutation.delete(third.getId()),
+                Mutation.create(new Task("Clash", "Desc", Status.NEW, Duration.ofMinutes(10), now)))));
+
+        assertEquals(List.of(first.getId(), second.getId(), third.getId()),
+                taskManager.getEpicById(epic.getId()).getSubtaskIds());
+        assertEquals(Status.IN_PROGRESS, taskManager.getEpicById(epic.getId()).getStatus());
+        Task after = taskManager.createTask(new Task("After", "Desc", Status.NEW));
+        assertEquals(before.getId() + 1, after.getId());
+    }
+
+    @Test
+    void shouldRejectMovingSubtaskToAnotherEpic() {
+        Epic source = taskManager.createEpic(new Epic("Source", "Desc"));
+        Epic target = taskManager.createEpic(new Epic("Target", "Desc"));
+        Subtask subtask = taskManager.createSubtask(new Subtask("Sub", "Desc", Status.DONE, source.getId()));
+        Subtask moved = new Subtask("Sub", "Desc", Status.IN_PROGRESS, target.getId());
+        moved.setId(subtask.getId());
+
+        assertThrows(IllegalArgumentException.class, () -> taskManager.updateSubtask(moved));
+
+        assertEquals(source.getId(), taskManager.getSubtaskById(subtask.getId()).getEpicId());
+        assertEquals(Status.DONE, taskManager.getEpicById(source.getId()).getStatus());
+        assertTrue(taskManager.getEpicById(target.getId()).getSubtaskIds().isEmpty());
+        taskManager.deleteSubtaskById(subtask.getId());
+        assertEquals(Status.NEW, taskManager.getEpicById(source.getId()).getStatus());
+    }
+
+    @Test
+    void shouldFindAnyItemByIdAndRecordItInHistory() {
+        Task task = taskManager.createTask(new Task("Task", "Desc", Status.NEW));
+        Epic epic = taskManager.createEpic(new Epic("Epic", "Desc"));
+        Subtask subtask = taskManager.createSubtask(new Subtask("Sub", "Desc", Status.NEW, epic.getId()));
+
+        assertEquals(TaskType.SUBTASK, taskManager.getById(subtask.getId()).getType());
+        assertEquals(TaskType.EPIC, taskManager.getById(epic.getId()).getType());
+        assertEquals(TaskType.TASK, taskManager.getById(task.getId()).getType());
+        assertEquals(List.of(subtask, epic, task), taskManager.getHistory());
+
+        taskManager.deleteEpicById(epic.getId());
+
+        assertNull(taskManager.getById(epic.getId()));
+        assertNull(taskManager.getById(subtask.getId()));
+        assertSame(task, taskManager.getById(task.getId()));
+    }
+
+    @Test
+    void shouldReturnDetachedImmutableSnapshots() {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 10, 0);
+        Task first = taskManager.createTask(new Task("First", "Desc", Status.NEW, Duration.ofMinutes(30), start));
+        Task second = taskManager.createTask(new Task("Second", "Desc", Status.NEW,
+                Duration.ofMinutes(30), start.plusHours(1)));
+
+        List<Task> prioritized = taskManager.getPrioritizedTasks();
+        assertThrows(UnsupportedOperationException.class, () -> prioritized.add(first));
+        assertThrows(UnsupportedOperationException.class, () -> taskManager.getAllTasks().clear());
+
+        prioritized.get(0).setStartTime(start.plusHours(5));
+        taskManager.getAllTasks().get(0).setName("Changed");
+
+        assertEquals(start, taskManager.getTaskById(first.getId()).getStartTime());
+        assertEquals("First", taskManager.getTaskById(first.getId()).getName());
+        assertEquals(List.of(first, second), taskManager.getPrioritizedTasks());
+    }
+
+    @Test
+    void shouldReuseSnapshotUntilBoardChanges() {
+        Epic epic = taskManager.createEpic(new Epic("Epic", "Desc"));
+        taskManager.createTask(new Task("Task", "Desc", Status.NEW));
+
+        BoardSnapshot snapshot = taskManager.getSnapshot();
+        assertSame(snapshot.getTasks(), taskManager.getAllTasks());
+        assertSame(taskManager.getAllEpics(), taskManager.getAllEpics());
+        assertSame(snapshot, taskManager.getSnapshot());
+
+        Subtask subtask = taskManager.createSubtask(new Subtask("Sub", "Desc", Status.DONE, epic.getId()));
+        BoardSnapshot updated = taskManager.getSnapshot();
+
+        assertNotSame(snapshot, updated);
+        assertSame(snapshot.getTasks(), updated.getTasks());
+        assertEquals(List.of(subtask), updated.getSubtasks());
+        assertEquals(Status.DONE, updated.getEpics().get(0).getStatus());
+        assertEquals(List.of(subtask.getId()), updated.getEpics().get(0).getSubtaskIds());
+        assertEquals(Status.NEW, snapshot.getEpics().get(0).getStatus());
+    }
+
+    @Test
+    void shouldQueryScheduleByWindowCursorAndInstant() {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 9, 0);
+        List<Task> created = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            created.add(taskManager.createTask(new Task("Task" + i, "Desc", Status.NEW,
+                    Duration.ofMinutes(30), start.plusHours(i))));
+        }
+        taskManager.createTask(new Task("Untimed", "Desc", Status.NEW));
+
+        assertEquals(created.subList(1, 3),
+                taskManager.getPrioritizedTasks(start.plusHours(1), start.plusHours(3)));
+        assertTrue(taskManager.getPrioritizedTasks(start.plusMinutes(10), start.plusMinutes(50)).isEmpty());
+
+        List<Task> firstPage = taskManager.getPrioritizedTasksAfter(null, 2);
+        assertEquals(created.subList(0, 2), firstPage);
+        List<Task> secondPage = taskManager.getPrioritizedTasksAfter(firstPage.get(1), 2);
+        assertEquals(created.subList(2, 4), secondPage);
+        taskManager.deleteTaskById(secondPage.get(1).getId());
+        assertEquals(List.of(created.get(4)), taskManager.getPrioritizedTasksAfter(secondPage.get(1), 2));
+
+        assertEquals(List.of(created.get(2)), taskManager.getTasksAt(start.plusHours(2).plusMinutes(15)));
+        assertEquals(List.of(created.get(2)), taskManager.getTasksAt(start.plusHours(2).plusMinutes(30)));
+        assertTrue(taskManager.getTasksAt(start.plusHours(2).plusMinutes(45)).isEmpty());
+
+        Task running = taskManager.createTask(new Task("Long", "Desc", Status.NEW,
+                Duration.ofMinutes(120), start.plusHours(10)));
+        taskManager.createTask(new Task("NoDuration", "Desc", Status.NEW, null, start.plusHours(10).plusMinutes(30)));
+        assertEquals(List.of(running), taskManager.getTasksAt(start.plusHours(10).plusMinutes(45)));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> taskManager.getPrioritizedTasks(start.plusHours(1), start));
+    }
+
+    @Test
+    void shouldBumpCollectionVersionOnlyOnChange() {
+        long tasks = taskManager.getVersion(TaskCollection.TASKS);
+        long epics = taskManager.getVersion(TaskCollection.EPICS);
+        Task task = taskManager.createTask(new Task("Task", "Desc", Status.NEW));
+        Epic epic = taskManager.createEpic(new Epic("Epic", "Desc"));
+
+        long tasksAfterCreate = taskManager.getVersion(TaskCollection.TASKS);
+        assertTrue(tasksAfterCreate > tasks);
+        assertTrue(taskManager.getVersion(TaskCollection.EPICS) > epics);
+        taskManager.getAllTasks();
+        assertEquals(tasksAfterCreate, taskManager.getVersion(TaskCollection.TASKS));
+
+        long history = taskManager.getVersion(TaskCollection.HISTORY);
+        taskManager.getEpicById(epic.getId());
+        long historyAfterView = taskManager.getVersion(TaskCollection.HISTORY);
+        assertTrue(historyAfterView > history);
+
+        long epicsBefore = taskManager.getVersion(TaskCollection.EPICS);
+        taskManager.createSubtask(new Subtask("Sub", "Desc", Status.DONE, epic.getId()));
+        assertTrue(taskManager.getVersion(TaskCollection.EPICS) > epicsBefore);
+        assertTrue(taskManager.getVersion(TaskCollection.HISTORY) > historyAfterView);
+        assertEquals(tasksAfterCreate, taskManager.getVersion(TaskCollection.TASKS));
+
+        taskManager.deleteTaskById(task.getId());
+        assertTrue(taskManager.getVersion(TaskCollection.TASKS) > tasksAfterCreate);
+    }
+}